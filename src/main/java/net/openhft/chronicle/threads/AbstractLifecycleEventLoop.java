@@ -25,6 +25,7 @@ import net.openhft.chronicle.core.threads.EventHandler;
 import net.openhft.chronicle.core.threads.EventLoop;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -46,6 +47,12 @@ public abstract class AbstractLifecycleEventLoop extends AbstractCloseable imple
      */
     private static final long AWAIT_TERMINATION_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(5);
     private final AtomicReference<EventLoopLifecycle> lifecycle = new AtomicReference<>(EventLoopLifecycle.NEW);
+    // counted down once the event loop's thread is running, or the loop is stopped
+    private final CountDownLatch started = new CountDownLatch(1);
+    // counted down once the event loop's thread has finished running
+    private final CountDownLatch terminated = new CountDownLatch(1);
+    // counted down once the lifecycle reaches STOPPED
+    private final CountDownLatch stopped = new CountDownLatch(1);
     protected final String name;
 
     protected AbstractLifecycleEventLoop(@NotNull String name) {
@@ -78,14 +85,79 @@ public abstract class AbstractLifecycleEventLoop extends AbstractCloseable imple
      */
     protected abstract void performStart();
 
+    /**
+     * Called by the event loop once it is running, so a thread waiting in {@link #awaitStarted(long)} doesn't have to poll {@link #isAlive()}
+     */
+    protected final void signalStarted() {
+        started.countDown();
+    }
+
+    /**
+     * Wait for the event loop to signal it has started, or to be stopped
+     *
+     * @param timeoutMS to wait
+     * @return true if it signalled before the timeout
+     */
+    boolean awaitStarted(long timeoutMS) throws InterruptedException {
+        return awaitStarted(timeoutMS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Wait for the event loop to signal it has started, or to be stopped
+     *
+     * @param timeout to wait
+     * @param unit    of the timeout
+     * @return true if it signalled before the timeout
+     */
+    boolean awaitStarted(long timeout, TimeUnit unit) throws InterruptedException {
+        return started.await(timeout, unit);
+    }
+
+    /**
+     * Called by the event loop's thread as it finishes running, so {@link #stop()} can wait for it without polling
+     */
+    protected final void signalTerminated() {
+        terminated.countDown();
+    }
+
+    /**
+     * Wait for the event loop's thread to call {@link #signalTerminated()}
+     *
+     * @param timeoutMS to wait
+     * @return true if it signalled before the timeout, or false if it timed out or this thread was interrupted
+     */
+    protected final boolean awaitTerminated(long timeoutMS) {
+        return awaitTerminated(timeoutMS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Wait for the event loop's thread to call {@link #signalTerminated()}
+     *
+     * @param timeout to wait
+     * @param unit    of the timeout
+     * @return true if it signalled before the timeout, or false if it timed out or this thread was interrupted
+     */
+    protected final boolean awaitTerminated(long timeout, TimeUnit unit) {
+        try {
+            return terminated.await(timeout, unit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
     @Override
     public final void stop() {
         if (lifecycle.compareAndSet(EventLoopLifecycle.NEW, EventLoopLifecycle.STOPPING)) {
             performStopFromNew();
             lifecycle.set(EventLoopLifecycle.STOPPED);
+            stopped.countDown();
+            signalStarted();
         } else if (lifecycle.compareAndSet(EventLoopLifecycle.STARTED, EventLoopLifecycle.STOPPING)) {
             performStopFromStarted();
             lifecycle.set(EventLoopLifecycle.STOPPED);
+            stopped.countDown();
+            signalStarted();
         } else {
             awaitTermination();
         }
@@ -105,17 +177,15 @@ public abstract class AbstractLifecycleEventLoop extends AbstractCloseable imple
     protected abstract void performStopFromStarted();
 
     protected final void awaitTermination() {
-        long endTime = System.currentTimeMillis() + AWAIT_TERMINATION_TIMEOUT_MS;
-        while (!Thread.currentThread().isInterrupted()) {
-            if (lifecycle.get() == EventLoopLifecycle.STOPPED)
-                return;
-            if (System.currentTimeMillis() > endTime) {
+        if (stopped.getCount() == 0)
+            return;
+        try {
+            if (!stopped.await(AWAIT_TERMINATION_TIMEOUT_MS, TimeUnit.MILLISECONDS))
                 Jvm.error().on(getClass(), "awaitTermination() timed out, continuing. This probably represents a bug.");
-            }
-            Jvm.pause(1);
-        }
-        if (lifecycle.get() != EventLoopLifecycle.STOPPED) {
-            Jvm.warn().on(getClass(), "awaitTermination() interrupted, returning in state " + lifecycle.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (lifecycle.get() != EventLoopLifecycle.STOPPED)
+                Jvm.warn().on(getClass(), "awaitTermination() interrupted, returning in state " + lifecycle.get());
         }
     }
 
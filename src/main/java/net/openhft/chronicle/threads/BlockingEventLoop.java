@@ -21,13 +21,17 @@ import net.openhft.chronicle.core.Jvm;
 import net.openhft.chronicle.core.threads.EventHandler;
 import net.openhft.chronicle.core.threads.EventLoop;
 import net.openhft.chronicle.core.threads.InvalidEventHandlerException;
+import net.openhft.chronicle.threads.internal.HandlerActionEvent;
+import net.openhft.chronicle.threads.internal.JfrSupport;
+import net.openhft.chronicle.threads.internal.TrackedExecutors;
+import net.openhft.chronicle.threads.internal.VirtualThreads;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
 import java.util.function.Supplier;
 
 import static net.openhft.chronicle.core.io.Closeable.closeQuietly;
@@ -35,8 +39,12 @@ import static net.openhft.chronicle.threads.Threads.*;
 
 /**
  * Event Loop for blocking tasks.
+ * <p>
+ * Each handler runs on its own thread, which may be a virtual thread on Java 21+ with
+ * {@code -Dchronicle.threads.blocking.virtual=true} so many handlers blocking on I/O don't need as many platform threads.
  */
 public class BlockingEventLoop extends AbstractLifecycleEventLoop implements EventLoop {
+    static final boolean VIRTUAL_THREADS = VirtualThreads.enabled("chronicle.threads.blocking.virtual");
 
     @NotNull
     private transient final EventLoop parent;
@@ -44,27 +52,43 @@ public class BlockingEventLoop extends AbstractLifecycleEventLoop implements Eve
     private transient final ExecutorService service;
     private final List<EventHandler> handlers = new CopyOnWriteArrayList<>();
     private final List<Runner> runners = new CopyOnWriteArrayList<>();
-    private final NamedThreadFactory threadFactory;
+    private final ThreadFactory threadFactory;
     private final Supplier<Pauser> pauserSupplier;
 
     public BlockingEventLoop(@NotNull final EventLoop parent,
                              @NotNull final String name,
                              @NotNull final Supplier<Pauser> pauser) {
+        this(parent, name, pauser, VIRTUAL_THREADS);
+    }
+
+    /**
+     * @param virtualThreads run each handler on a virtual thread, if available (Java 21+)
+     */
+    public BlockingEventLoop(@NotNull final EventLoop parent,
+                             @NotNull final String name,
+                             @NotNull final Supplier<Pauser> pauser,
+                             final boolean virtualThreads) {
         super(name);
         this.parent = parent;
-        this.threadFactory = new NamedThreadFactory(name, null, null, true);
-        this.service = Executors.newCachedThreadPool(threadFactory);
+        this.threadFactory = threadFactory(name, virtualThreads);
+        this.service = TrackedExecutors.newCachedThreadPool(threadFactory);
         this.pauserSupplier = pauser;
     }
 
     public BlockingEventLoop(@NotNull final String name) {
         super(name);
         this.parent = this;
-        this.threadFactory = new NamedThreadFactory(name, null, null, true);
-        this.service = Executors.newCachedThreadPool(threadFactory);
+        this.threadFactory = threadFactory(name, VIRTUAL_THREADS);
+        this.service = TrackedExecutors.newCachedThreadPool(threadFactory);
         this.pauserSupplier = Pauser::balanced;
     }
 
+    private static ThreadFactory threadFactory(String name, boolean virtualThreads) {
+        return virtualThreads && VirtualThreads.AVAILABLE
+                ? VirtualThreads.factory(name)
+                : new NamedThreadFactory(name, null, null, true);
+    }
+
     /**
      * This can be called multiple times and each handler will be executed in its own thread
      *
@@ -85,6 +109,8 @@ public class BlockingEventLoop extends AbstractLifecycleEventLoop implements Eve
     @Override
     protected synchronized void performStart() {
         handlers.forEach(this::startHandler);
+        // each handler has its own thread, so the loop is alive as soon as it is started
+        signalStarted();
     }
 
     private void startHandler(final EventHandler handler) {
@@ -173,7 +199,10 @@ public class BlockingEventLoop extends AbstractLifecycleEventLoop implements Eve
                 handler.loopStarted();
 
                 while (isStarted()) {
-                    if (handler.action())
+                    final boolean busy = JfrSupport.ENABLED
+                            ? HandlerActionEvent.action(name, handler)
+                            : handler.action();
+                    if (busy)
                         pauser.reset();
                     else
                         pauser.pause();
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2016-2022 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.threads;
+
+import net.openhft.chronicle.core.threads.EventHandler;
+
+/**
+ * An {@link EventHandler} with a latency target. A {@link MediumEventLoop} with any of these calls its MEDIUM handlers
+ * earliest deadline first, i.e. those closest to going longer than their interval without being called go first, and
+ * handlers without a deadline go last. When the loop is overloaded each time a handler misses its deadline is counted,
+ * see {@link MediumEventLoop#deadlineMisses(EventHandler)}.
+ */
+public interface DeadlineEventHandler extends EventHandler {
+    /**
+     * @return the longest time, in nanoseconds, there should be between calls to {@link #action()}
+     */
+    long maxServiceIntervalNS();
+}
@@ -18,8 +18,12 @@
 package net.openhft.chronicle.threads;
 
 import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.core.threads.EventLoop;
+import net.openhft.chronicle.core.threads.HandlerPriority;
+import net.openhft.chronicle.core.threads.InvalidEventHandlerException;
 import net.openhft.chronicle.core.time.SystemTimeProvider;
 import net.openhft.chronicle.core.time.TimeProvider;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.VisibleForTesting;
 
 import java.io.Closeable;
@@ -31,11 +35,17 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * Background thread to monitor disk space free.
+ * <p>
+ * The checks run on a dedicated {@value #DISK_SPACE_CHECKER_NAME} thread unless they are attached to an event loop with
+ * {@link #attachTo(EventLoop)}. Setting {@code chronicle.disk.monitor.handler=true} stops the dedicated thread being
+ * started at all.
  */
 public enum DiskSpaceMonitor implements Runnable, Closeable {
     INSTANCE;
@@ -44,20 +54,28 @@ public enum DiskSpaceMonitor implements Runnable, Closeable {
     static final boolean WARN_DELETED = Jvm.getBoolean("disk.monitor.deleted.warning");
     private static final boolean DISABLED = Jvm.getBoolean("chronicle.disk.monitor.disable");
     public static final int TIME_TAKEN_WARN_THRESHOLD_US = Jvm.getInteger("chronicle.disk.monitor.warn.threshold.us", 250);
+    // notify when the disk is predicted to be full in less than this
+    static final long TIME_TO_FULL_WARN_MS = Jvm.getLong("chronicle.disk.monitor.time.to.full.warn.s", 3600L) * 1000;
+    // the time constant of the exponentially weighted average of the fill rate
+    private static final double FILL_RATE_WINDOW_MS = 60_000;
+    // a power of two
+    private static final int SEEN_FILES = 1024;
+    private static final int SEEN_FILES_PROBES = 4;
     private final NotifyDiskLow notifyDiskLow;
+    // the File objects passed to pollDiskSpace, by identity hash, so a File seen before costs no lookup by path or allocation
+    private final AtomicReferenceArray<File> seenFiles = new AtomicReferenceArray<>(SEEN_FILES);
+    // new Files to resolve to a FileStore on the checker thread
+    private final Queue<File> filesToResolve = new ConcurrentLinkedQueue<>();
     final Map<String, FileStore> fileStoreCacheMap = new ConcurrentHashMap<>();
     final Map<FileStore, DiskAttributes> diskAttributesMap = new ConcurrentHashMap<>();
-    final ScheduledExecutorService executor;
+    volatile ScheduledExecutorService executor;
+    private volatile DiskSpaceCheckHandler checkHandler;
     private int thresholdPercentage = Jvm.getInteger("chronicle.disk.monitor.threshold.percent", 5);
     private TimeProvider timeProvider = SystemTimeProvider.INSTANCE;
 
     DiskSpaceMonitor() {
-        if (!Jvm.getBoolean("chronicle.disk.monitor.disable")) {
-            executor = Threads.acquireScheduledExecutorService(DISK_SPACE_CHECKER_NAME, true);
-            executor.scheduleAtFixedRate(this, 1, 1, TimeUnit.SECONDS);
-        } else {
-            executor = null;
-        }
+        if (!Jvm.getBoolean("chronicle.disk.monitor.disable") && !Jvm.getBoolean("chronicle.disk.monitor.handler"))
+            startExecutor();
 
         final ServiceLoader<NotifyDiskLow> services = ServiceLoader.load(NotifyDiskLow.class);
         if (services.iterator().hasNext()) {
@@ -71,42 +89,77 @@ public enum DiskSpaceMonitor implements Runnable, Closeable {
 
     // used for testing purposes
     public void clear() {
+        filesToResolve.clear();
+        for (int i = 0; i < SEEN_FILES; i++)
+            seenFiles.set(i, null);
         fileStoreCacheMap.clear();
         diskAttributesMap.clear();
     }
 
+    /**
+     * Add the disk the file is on to those monitored. This doesn't allocate or access the file system for a File object
+     * passed before, and the FileStore of a new file is found on the checker thread.
+     *
+     * @param file on the disk to monitor
+     */
     public void pollDiskSpace(File file) {
         if (DISABLED)
             return;
-        long start = timeProvider.currentTimeNanos();
+        final int hash = System.identityHashCode(file);
+        for (int i = 0; i < SEEN_FILES_PROBES; i++)
+            if (seenFiles.get((hash + i) & (SEEN_FILES - 1)) == file)
+                return;
+
+        rememberFile(file, hash);
+        filesToResolve.add(file);
+    }
+
+    private void rememberFile(File file, int hash) {
+        for (int i = 0; i < SEEN_FILES_PROBES; i++)
+            if (seenFiles.compareAndSet((hash + i) & (SEEN_FILES - 1), null, file))
+                return;
+        // all the slots are taken, the File evicted will be resolved again if it is passed again
+        seenFiles.set(hash & (SEEN_FILES - 1), file);
+    }
 
-        final String absolutePath = file.getAbsolutePath();
-        FileStore fs = fileStoreCacheMap.get(absolutePath);
-        if (fs == null) {
-            if (file.exists()) {
+    private void forgetFile(File file) {
+        final int hash = System.identityHashCode(file);
+        for (int i = 0; i < SEEN_FILES_PROBES; i++)
+            seenFiles.compareAndSet((hash + i) & (SEEN_FILES - 1), file, null);
+    }
 
+    private void resolveNewFiles() {
+        for (File file; (file = filesToResolve.poll()) != null; ) {
+            final long start = timeProvider.currentTimeNanos();
+            final String absolutePath = file.getAbsolutePath();
+            FileStore fs = fileStoreCacheMap.get(absolutePath);
+            if (fs == null) {
+                if (!file.exists()) {
+                    // nothing to monitor if it doesn't exist, check again if it is passed again.
+                    forgetFile(file);
+                    continue;
+                }
                 Path path = Paths.get(absolutePath);
                 try {
                     fs = Files.getFileStore(path);
                     fileStoreCacheMap.put(absolutePath, fs);
                 } catch (IOException e) {
                     Jvm.warn().on(getClass(), "Error trying to obtain the FileStore for " + path, e);
-                    return;
+                    forgetFile(file);
+                    continue;
                 }
-            } else {
-                // nothing to monitor if it doesn't exist.
-                return;
             }
-        }
-        DiskAttributes da = diskAttributesMap.computeIfAbsent(fs, DiskAttributes::new);
+            diskAttributesMap.computeIfAbsent(fs, DiskAttributes::new);
 
-        final long tookUs = (timeProvider.currentTimeNanos() - start) / 1_000;
-        if (tookUs > TIME_TAKEN_WARN_THRESHOLD_US)
-            Jvm.perf().on(getClass(), "Took " + tookUs / 1000.0 + " ms to pollDiskSpace for " + file.getAbsolutePath());
+            final long tookUs = (timeProvider.currentTimeNanos() - start) / 1_000;
+            if (tookUs > TIME_TAKEN_WARN_THRESHOLD_US)
+                Jvm.perf().on(getClass(), "Took " + tookUs / 1000.0 + " ms to find the disk for " + absolutePath);
+        }
     }
 
     @Override
     public void run() {
+        resolveNewFiles();
         for (Iterator<DiskAttributes> iterator = diskAttributesMap.values().iterator(); iterator.hasNext(); ) {
             DiskAttributes da = iterator.next();
             try {
@@ -132,10 +185,51 @@ public enum DiskSpaceMonitor implements Runnable, Closeable {
         this.timeProvider = timeProvider;
     }
 
+    private void startExecutor() {
+        final ScheduledExecutorService service = Threads.acquireScheduledExecutorService(DISK_SPACE_CHECKER_NAME, true);
+        service.scheduleAtFixedRate(this, 1, 1, TimeUnit.SECONDS);
+        executor = service;
+    }
+
+    private void stopExecutor() {
+        final ScheduledExecutorService service = executor;
+        executor = null;
+        if (service != null)
+            Threads.shutdown(service);
+    }
+
+    /**
+     * Run the disk space checks as a {@link HandlerPriority#MONITOR} handler on an event loop, e.g. an
+     * {@link EventGroup}, instead of on a thread of its own. The dedicated thread is stopped, and any previous
+     * event loop attached to is detached from.
+     * <p>
+     * The checks stop if the event loop is closed, so attach to one which lives as long as the files being monitored.
+     *
+     * @param eventLoop to run the checks
+     */
+    public synchronized void attachTo(@NotNull EventLoop eventLoop) {
+        if (DISABLED)
+            return;
+        stopExecutor();
+        final DiskSpaceCheckHandler handler = new DiskSpaceCheckHandler();
+        checkHandler = handler;
+        eventLoop.addHandler(handler);
+    }
+
+    /**
+     * Detach from the event loop given to {@link #attachTo(EventLoop)}, and run the checks on a thread of their own again.
+     */
+    public synchronized void detach() {
+        if (DISABLED || checkHandler == null)
+            return;
+        checkHandler = null;
+        startExecutor();
+    }
+
     @Override
-    public void close() {
-        if (executor != null)
-            Threads.shutdown(executor);
+    public synchronized void close() {
+        checkHandler = null;
+        stopExecutor();
     }
 
     final class DiskAttributes {
@@ -144,6 +238,10 @@ public enum DiskSpaceMonitor implements Runnable, Closeable {
 
         long timeNextCheckedMS;
         long totalSpace;
+        long lastCheckedMS;
+        long lastUnallocatedBytes = -1;
+        // an exponentially weighted average of the rate the unallocated space is used
+        double bytesPerSecond;
 
         DiskAttributes(FileStore fileStore) {
             this.fileStore = fileStore;
@@ -159,6 +257,8 @@ public enum DiskSpaceMonitor implements Runnable, Closeable {
                 totalSpace = fileStore.getTotalSpace();
 
             long unallocatedBytes = fileStore.getUnallocatedSpace();
+            updateFillRate(now, unallocatedBytes);
+            final long timeToFullMS = timeToFullMS(unallocatedBytes);
             if (unallocatedBytes < (200 << 20)) {
                 // if less than 200 Megabytes
                 notifyDiskLow.panic(fileStore);
@@ -168,13 +268,71 @@ public enum DiskSpaceMonitor implements Runnable, Closeable {
                 notifyDiskLow.warning(diskSpaceFull, fileStore);
 
             } else {
-                // wait 1 ms per MB or approx 1 sec per GB free.
-                timeNextCheckedMS = now + (unallocatedBytes >> 20);
+                if (timeToFullMS < TIME_TO_FULL_WARN_MS)
+                    notifyDiskLow.fillingUp(timeToFullMS, bytesPerSecond, fileStore);
+                // wait 1 ms per MB or approx 1 sec per GB free, checking at least 10 times before the disk is predicted to be full.
+                timeNextCheckedMS = now + Math.min(unallocatedBytes >> 20, timeToFullMS / 10);
             }
             long time = System.nanoTime() - start;
             if (time > 1_000_000)
                 Jvm.perf().on(getClass(), "Took " + time / 10_000 / 100.0 + " ms to check the disk space of " + fileStore);
         }
+
+        void updateFillRate(long nowMS, long unallocatedBytes) {
+            if (lastUnallocatedBytes >= 0 && nowMS > lastCheckedMS) {
+                final long elapsedMS = nowMS - lastCheckedMS;
+                final double rate = (lastUnallocatedBytes - unallocatedBytes) * 1000.0 / elapsedMS;
+                // weight by the time since the last check, as the checks are further apart when there is more space
+                final double weight = 1 - Math.exp(-elapsedMS / FILL_RATE_WINDOW_MS);
+                bytesPerSecond += (rate - bytesPerSecond) * weight;
+            }
+            lastCheckedMS = nowMS;
+            lastUnallocatedBytes = unallocatedBytes;
+        }
+
+        /**
+         * @return the time until the unallocated space is used at the recent fill rate, or Long.MAX_VALUE if it isn't filling
+         */
+        long timeToFullMS(long unallocatedBytes) {
+            if (bytesPerSecond <= 0)
+                return Long.MAX_VALUE;
+            final double ms = unallocatedBytes * 1000.0 / bytesPerSecond;
+            return ms >= Long.MAX_VALUE ? Long.MAX_VALUE : (long) ms;
+        }
+    }
+
+    /**
+     * Runs the checks once a second, as the dedicated thread does
+     */
+    private final class DiskSpaceCheckHandler implements ScheduledMonitorHandler {
+        private long nextRunMS;
+
+        @Override
+        public boolean action() throws InvalidEventHandlerException {
+            if (checkHandler != this)
+                throw InvalidEventHandlerException.reusable();
+            final long now = timeProvider.currentTimeMillis();
+            if (now < nextRunMS)
+                return false;
+            nextRunMS = now + 1000;
+            DiskSpaceMonitor.this.run();
+            return false;
+        }
+
+        @Override
+        public long nextActionNS() {
+            return System.nanoTime() + Math.max(0, nextRunMS - timeProvider.currentTimeMillis()) * 1_000_000L;
+        }
+
+        @Override
+        public @NotNull HandlerPriority priority() {
+            return HandlerPriority.MONITOR;
+        }
+
+        @Override
+        public String toString() {
+            return "DiskSpaceCheckHandler";
+        }
     }
 
     private static class NotifyDiskLowIterator implements NotifyDiskLow {
@@ -195,5 +353,11 @@ public enum DiskSpaceMonitor implements Runnable, Closeable {
             for (NotifyDiskLow mfy : list)
                 mfy.warning(diskSpaceFullPercent, fileStore);
         }
+
+        @Override
+        public void fillingUp(long timeToFullMS, double bytesPerSecond, FileStore fileStore) {
+            for (NotifyDiskLow mfy : list)
+                mfy.fillingUp(timeToFullMS, bytesPerSecond, fileStore);
+        }
     }
 }
@@ -17,19 +17,25 @@
  */
 package net.openhft.chronicle.threads;
 
+import net.openhft.affinity.AffinityLock;
+import net.openhft.affinity.CpuLayout;
 import net.openhft.chronicle.core.Jvm;
 import net.openhft.chronicle.core.threads.EventHandler;
 import net.openhft.chronicle.core.threads.EventLoop;
 import net.openhft.chronicle.core.threads.HandlerPriority;
+import net.openhft.chronicle.threads.internal.CpuTopology;
+import net.openhft.chronicle.threads.internal.EventLoopHistory;
 import net.openhft.chronicle.threads.internal.EventLoopStateRenderer;
 import net.openhft.chronicle.threads.internal.EventLoopThreadHolder;
 import net.openhft.chronicle.threads.internal.ThreadMonitorHarness;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.LongSupplier;
 import java.util.function.Supplier;
@@ -60,24 +66,38 @@ public class EventGroup
     private final AtomicInteger counter = new AtomicInteger();
     @NotNull
     private final MonitorEventLoop monitor;
+    private final PauserMetrics pauserMetrics = new PauserMetrics();
+    // the monitor is shared with other event groups
+    private final boolean sharedMonitor;
     private final CoreEventLoop core;
+    // the core event loop, followed by any additional core shards
+    private final List<CoreEventLoop> coreShards = new ArrayList<>();
+    private final List<Pauser> coreShardPausers = new ArrayList<>();
+    // the core event loop and its shards are only started once they have a handler
+    private final Set<CoreEventLoop> coreShardsInUse = ConcurrentHashMap.newKeySet();
+    // the monitor event loop of this group is only started once the group has a handler
+    private final AtomicBoolean monitorInUse = new AtomicBoolean();
     private final BlockingEventLoop blocking;
     @NotNull
     private final Pauser pauser;
     @NotNull
     private final Supplier<Pauser> concPauserSupplier;
+    private final String binding;
     private final String concBinding;
     private final String bindingReplication;
     private final Set<HandlerPriority> priorities;
     @NotNull
     private final List<VanillaEventLoop> concThreads = new CopyOnWriteArrayList<>();
+    // the indexes of the concurrent event loops bound to a CPU on each socket
+    private volatile int[][] concThreadsBySocket;
     private final boolean daemon;
 
     private final Pauser replicationPauser;
     private VanillaEventLoop replication;
+    // the isolated cores claimed by EventGroupBuilder.bindingAutomatic(), released on close
+    private volatile List<CpuTopology.Claim> cpuClaims = Collections.emptyList();
 
     @Deprecated(/* Instead use EventGroupBuilder. TODO: make package-private and undeprecate in x.28, as only EventGroupBuilder should be using */)
-    @SuppressWarnings({"this-escape", "deprecation"})
     public EventGroup(final boolean daemon,
                       @NotNull final Pauser pauser,
                       final Pauser replicationPauser,
@@ -89,38 +109,76 @@ public class EventGroup
                       @NotNull final Supplier<Pauser> concPauserSupplier,
                       final Set<HandlerPriority> priorities,
                       @NotNull final Supplier<Pauser> blockingPauserSupplier) {
+        this(daemon, pauser, replicationPauser, binding, bindingReplication, name, concThreadsNum, concBinding,
+                concPauserSupplier, priorities, blockingPauserSupplier, 1, PauserMode.balanced, BlockingEventLoop.VIRTUAL_THREADS,
+                SharedMonitor.ENABLED);
+    }
+
+    @SuppressWarnings({"this-escape", "deprecation"})
+    EventGroup(final boolean daemon,
+               @NotNull final Pauser pauser,
+               final Pauser replicationPauser,
+               final String binding,
+               final String bindingReplication,
+               @NotNull final String name,
+               final int concThreadsNum,
+               final String concBinding,
+               @NotNull final Supplier<Pauser> concPauserSupplier,
+               final Set<HandlerPriority> priorities,
+               @NotNull final Supplier<Pauser> blockingPauserSupplier,
+               final int coreShardsNum,
+               @NotNull final Supplier<Pauser> coreShardPauserSupplier,
+               final boolean blockingVirtualThreads,
+               final boolean sharedMonitor) {
         super(name);
         this.daemon = daemon;
         this.pauser = pauser;
         this.replicationPauser = replicationPauser;
+        this.binding = binding;
         this.concBinding = concBinding;
         this.concPauserSupplier = concPauserSupplier;
         this.bindingReplication = bindingReplication;
         this.priorities = EnumSet.copyOf(priorities);
+        this.sharedMonitor = sharedMonitor;
         List<Object> closeable = new ArrayList<>();
         try {
-            final Set<HandlerPriority> corePriorities = priorities.stream()
-                    .filter(VanillaEventLoop.ALLOWED_PRIORITIES::contains)
-                    .collect(Collectors.toSet());
             core = priorities.stream().anyMatch(VanillaEventLoop.ALLOWED_PRIORITIES::contains)
-                    ? corePriorities.equals(EnumSet.of(HandlerPriority.MEDIUM))
-                    ? new MediumEventLoop(this, nameWithSlash() + "core-event-loop", pauser, daemon, binding)
-                    : new VanillaEventLoop(this, nameWithSlash() + "core-event-loop", pauser, 1, daemon, binding, priorities)
+                    ? newCoreEventLoop("core-event-loop", pauser, bindingFor(binding, 0))
                     : null;
             closeable.add(core);
-            monitor = new MonitorEventLoop(this, nameWithSlash() + "~monitor",
-                    Pauser.millis(Integer.getInteger("monitor.interval", 10)));
-            closeable.add(monitor);
             if (core != null) {
-                monitor.addHandler(new PauserMonitor(pauser, nameWithSlash() + "core-pauser", 300));
+                coreShards.add(core);
+                for (int i = 1; i < coreShardsNum; i++) {
+                    final Pauser shardPauser = coreShardPauserSupplier.get();
+                    final CoreEventLoop shard = newCoreEventLoop("core-event-loop-" + i, shardPauser, bindingFor(binding, i));
+                    closeable.add(shard);
+                    coreShards.add(shard);
+                    coreShardPausers.add(shardPauser);
+                }
+            }
+            if (sharedMonitor) {
+                final MonitorEventLoop shared = SharedMonitor.acquire();
+                monitor = shared;
+                closeable.add((AutoCloseable) () -> SharedMonitor.release(this, shared));
+            } else {
+                monitor = new MonitorEventLoop(this, nameWithSlash() + "~monitor",
+                        Pauser.millis(Integer.getInteger("monitor.interval", 10)));
+                closeable.add(monitor);
+            }
+            addMonitorHandler(pauserMetrics);
+            if (core != null) {
+                pauserMetrics.add(nameWithSlash() + "core-pauser", pauser);
+                for (int i = 0; i < coreShardPausers.size(); i++)
+                    pauserMetrics.add(nameWithSlash() + "core-pauser-" + (i + 1), coreShardPausers.get(i));
                 long samplerMicros = Integer.getInteger("sampler.micros", 0);
                 if (pauser instanceof TimingPauser && samplerMicros > 0)
                     setupTimeLimitMonitor(samplerMicros * 1000, core::loopStartNS);
             }
-            blocking = priorities.contains(HandlerPriority.BLOCKING) ? new BlockingEventLoop(this, nameWithSlash() + "blocking-event-loop", blockingPauserSupplier) : null;
+            blocking = priorities.contains(HandlerPriority.BLOCKING) ? new BlockingEventLoop(this, nameWithSlash() + "blocking-event-loop", blockingPauserSupplier, blockingVirtualThreads) : null;
             closeable.add(blocking);
             if (priorities.contains(HandlerPriority.CONCURRENT))
                 IntStream.range(0, concThreadsNum).forEach(i -> concThreads.add(null));
+            concThreadsBySocket = concThreadsBySocket(concThreads.isEmpty() ? null : AffinityLock.cpuLayout(), concThreads.size());
 
             singleThreadedCheckDisabled(true);
 
@@ -130,6 +188,16 @@ public class EventGroup
         }
     }
 
+    @SuppressWarnings("deprecation")
+    private CoreEventLoop newCoreEventLoop(String loopName, Pauser loopPauser, String loopBinding) {
+        final Set<HandlerPriority> corePriorities = priorities.stream()
+                .filter(VanillaEventLoop.ALLOWED_PRIORITIES::contains)
+                .collect(Collectors.toSet());
+        return corePriorities.equals(EnumSet.of(HandlerPriority.MEDIUM))
+                ? new MediumEventLoop(this, nameWithSlash() + loopName, loopPauser, daemon, loopBinding)
+                : new VanillaEventLoop(this, nameWithSlash() + loopName, loopPauser, 1, daemon, loopBinding, priorities);
+    }
+
     /**
      * Create an EventGroup builder
      *
@@ -147,16 +215,28 @@ public class EventGroup
                     REPLICATION_EVENT_PAUSE_TIME, daemon, bindingReplication, EnumSet.of(HandlerPriority.REPLICATION, HandlerPriority.REPLICATION_TIMER));
 
             addThreadMonitoring(REPLICATION_MONITOR_INTERVAL_MS, replication);
-            if (isAlive())
+            if (isStarted())
                 replication.start();
-            monitor.addHandler(new PauserMonitor(newReplicationPauser, nameWithSlash() + "replication pauser", 300));
+            pauserMetrics.add(nameWithSlash() + "replication pauser", newReplicationPauser);
         }
         return replication;
     }
 
+    /**
+     * @return the rolling metrics of the pausers of this group's event loops
+     */
+    @NotNull
+    public PauserMetrics pauserMetrics() {
+        return pauserMetrics;
+    }
+
+    private void addMonitorHandler(EventHandler handler) {
+        monitor.addHandler(sharedMonitor ? SharedMonitor.forGroup(this, handler) : handler);
+    }
+
     private void addThreadMonitoring(long replicationMonitorIntervalMs, CoreEventLoop replication) {
         if (ENABLE_LOOP_BLOCK_MONITOR)
-            monitor.addHandler(new ThreadMonitorHarness(new EventLoopThreadHolder(
+            addMonitorHandler(new ThreadMonitorHarness(new EventLoopThreadHolder(
                     TimeUnit.NANOSECONDS.convert(replicationMonitorIntervalMs, TimeUnit.MILLISECONDS), replication)));
     }
 
@@ -164,20 +244,117 @@ public class EventGroup
     private synchronized VanillaEventLoop getConcThread(int n) {
         VanillaEventLoop loop = concThreads.get(n);
         if (loop == null) {
-            loop = new VanillaEventLoop(this, nameWithSlash() + "conc-event-loop-" + n, concPauserSupplier.get(),
-                    REPLICATION_EVENT_PAUSE_TIME, daemon, concBinding, EnumSet.of(HandlerPriority.CONCURRENT));
+            final Pauser concPauser = concPauserSupplier.get();
+            loop = new VanillaEventLoop(this, nameWithSlash() + "conc-event-loop-" + n, concPauser,
+                    REPLICATION_EVENT_PAUSE_TIME, daemon, bindingFor(concBinding, n), EnumSet.of(HandlerPriority.CONCURRENT));
             concThreads.set(n, loop);
             addThreadMonitoring(REPLICATION_MONITOR_INTERVAL_MS, loop);
-            if (isAlive())
+            if (isStarted())
                 loop.start();
-            monitor.addHandler(new PauserMonitor(pauser, nameWithSlash() + "conc-event-loop-" + n + " pauser", 300));
+            pauserMetrics.add(nameWithSlash() + "conc-event-loop-" + n + " pauser", concPauser);
         }
         return loop;
     }
 
+    private int[][] concThreadsBySocket(CpuLayout cpuLayout, int concThreadsNum) {
+        final List<List<Integer>> bySocket = new ArrayList<>();
+        for (int n = 0; n < concThreadsNum; n++) {
+            final int cpu = cpuIdOrNone(bindingFor(concBinding, n));
+            if (cpu < 0 || cpu >= cpuLayout.cpus())
+                continue;
+            final int socket = cpuLayout.socketId(cpu);
+            while (bySocket.size() <= socket)
+                bySocket.add(new ArrayList<>());
+            bySocket.get(socket).add(n);
+        }
+        return bySocket.stream()
+                .map(l -> l.stream().mapToInt(Integer::intValue).toArray())
+                .toArray(int[][]::new);
+    }
+
+    /**
+     * Place the CONCURRENT handlers which have a {@link SocketPreference} by this CPU layout rather than the machine's
+     */
+    void cpuLayout(@NotNull CpuLayout cpuLayout) {
+        concThreadsBySocket = concThreadsBySocket(cpuLayout, concThreads.size());
+    }
+
+    private static int cpuIdOrNone(String binding) {
+        try {
+            return binding == null ? -1 : Integer.parseInt(binding.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private int concThreadIndex(EventHandler handler) {
+        if (handler instanceof SocketPreference) {
+            final int socket = ((SocketPreference) handler).preferredSocket();
+            final int[][] bySocket = concThreadsBySocket;
+            if (socket >= 0 && socket < bySocket.length && bySocket[socket].length > 0) {
+                final int[] onSocket = bySocket[socket];
+                return onSocket[Math.floorMod(counter.getAndIncrement(), onSocket.length)];
+            }
+        }
+        return counter.getAndIncrement() % concThreads.size();
+    }
+
+    /**
+     * The core and concurrent bindings may be a comma separated list of bindings, one per event loop.
+     * Any event loops beyond the end of the list are not bound.
+     */
+    static String bindingFor(String binding, int n) {
+        if (binding == null || binding.indexOf(',') < 0 || binding.startsWith("csv:"))
+            return binding;
+        final String[] bindings = binding.split(",");
+        return n < bindings.length ? bindings[n].trim() : "none";
+    }
+
+    /**
+     * Route a handler to a core shard using a jump consistent hash of its {@link ShardKey}, so handlers with the
+     * same key always share a thread, and few keys move if the number of shards changes.
+     */
+    private CoreEventLoop coreFor(EventHandler handler) {
+        if (coreShards.size() > 1 && handler instanceof ShardKey)
+            return coreShards.get(shardFor(((ShardKey) handler).shardKey(), coreShards.size()));
+        return core;
+    }
+
+    /**
+     * Jump consistent hash, see <a href="https://arxiv.org/abs/1406.2294">A Fast, Minimal Memory, Consistent Hash Algorithm</a>
+     */
+    static int shardFor(long key, int shards) {
+        long b = -1;
+        long j = 0;
+        while (j < shards) {
+            b = j;
+            key = key * 2862933555777941757L + 1;
+            j = (long) ((b + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) b;
+    }
+
+    void cpuClaims(List<CpuTopology.Claim> cpuClaims) {
+        this.cpuClaims = cpuClaims;
+    }
+
+    /**
+     * Warm up the handlers of the core event loops before they go live, see {@link MediumEventLoop#warmUpIterations(int)}.
+     * This must be called before the event group is started.
+     *
+     * @param warmUpIterations the number of times to call each {@link WarmUpHandler}
+     */
+    public void warmUpIterations(int warmUpIterations) {
+        for (CoreEventLoop coreShard : coreShards)
+            if (coreShard instanceof MediumEventLoop)
+                ((MediumEventLoop) coreShard).warmUpIterations(warmUpIterations);
+    }
+
     @Override
     public void unpause() {
         pauser.unpause();
+        for (Pauser coreShardPauser : coreShardPausers)
+            coreShardPauser.unpause();
         if (replication != null)
             replication.unpause();
     }
@@ -186,56 +363,213 @@ public class EventGroup
     public void addHandler(@NotNull final EventHandler handler) {
         throwExceptionIfClosed();
 
-        HandlerPriority t1 = handler.priority();
-        switch (t1) {
-            case MONITOR:
-                monitor.addHandler(handler);
-                break;
+        monitorInUse();
+        if (handler.priority() == HandlerPriority.MONITOR) {
+            addMonitorHandler(handler);
+            return;
+        }
+        final EventLoop eventLoop = eventLoopFor(handler);
+        eventLoop.addHandler(handler);
+        inUse(eventLoop);
+    }
+
+    /**
+     * Add a number of handlers at once. Those for the same core, replication or concurrent event loop are accepted by
+     * it together, see {@link MediumEventLoop#addHandlers(Collection)}.
+     * <p>
+     * If the priority of any handler is not supported by this group, none of them are added.
+     *
+     * @param handlers to add
+     */
+    public void addHandlers(@NotNull final Collection<? extends EventHandler> handlers) {
+        throwExceptionIfClosed();
+
+        // before any event loop is created or started for them
+        for (EventHandler handler : handlers)
+            if (handler.priority() != HandlerPriority.MONITOR)
+                checkCanAdd(handler);
+
+        monitorInUse();
+        final Map<EventLoop, List<EventHandler>> handlersByLoop = new LinkedHashMap<>();
+        final List<EventHandler> others = new ArrayList<>();
+        for (EventHandler handler : handlers) {
+            final EventLoop eventLoop = handler.priority() == HandlerPriority.MONITOR ? null : eventLoopFor(handler);
+            if (eventLoop instanceof MediumEventLoop)
+                handlersByLoop.computeIfAbsent(eventLoop, el -> new ArrayList<>()).add(handler);
+            else
+                others.add(handler);
+        }
+        handlersByLoop.forEach((eventLoop, list) -> {
+            ((MediumEventLoop) eventLoop).addHandlers(list);
+            inUse(eventLoop);
+        });
+        others.forEach(this::addHandler);
+    }
+
+    /**
+     * Remove a number of handlers at once from the core, replication and concurrent event loops they were added to,
+     * see {@link MediumEventLoop#removeHandlers(Collection)}.
+     *
+     * @param handlers to remove
+     * @throws UnsupportedOperationException if any handler is a MONITOR or BLOCKING handler, in which case none are removed
+     */
+    public void removeHandlers(@NotNull final Collection<? extends EventHandler> handlers) {
+        throwExceptionIfClosed();
+
+        for (EventHandler handler : handlers) {
+            final HandlerPriority priority = handler.priority();
+            if (priority == HandlerPriority.MONITOR || priority == HandlerPriority.BLOCKING)
+                throw new UnsupportedOperationException("Cannot remove " + priority + " " + handler + " from " + name);
+        }
+        final Map<MediumEventLoop, List<EventHandler>> handlersByLoop = new LinkedHashMap<>();
+        for (EventHandler handler : handlers)
+            for (EventLoop eventLoop : eventLoopsWhichMayHave(handler))
+                if (eventLoop instanceof MediumEventLoop)
+                    handlersByLoop.computeIfAbsent((MediumEventLoop) eventLoop, el -> new ArrayList<>()).add(handler);
+        handlersByLoop.forEach(MediumEventLoop::removeHandlers);
+    }
 
+    /**
+     * @throws IllegalStateException if a handler, other than a MONITOR handler, can't be added to this group
+     */
+    private void checkCanAdd(@NotNull final EventHandler handler) {
+        final HandlerPriority t1 = handler.priority();
+        switch (t1) {
             case HIGH:
             case MEDIUM:
             case TIMER:
             case DAEMON:
                 if (core == null)
                     throw new IllegalStateException("Cannot add " + t1 + " " + handler + " to " + name);
-                core.addHandler(handler);
                 break;
 
             case BLOCKING:
                 if (blocking == null)
                     throw new IllegalStateException("Cannot add BLOCKING " + handler + " to " + name);
-                blocking.addHandler(handler);
                 break;
 
             // used only for replication, this is so replication can run in its own thread
             case REPLICATION:
             case REPLICATION_TIMER:
-                if (t1 == HandlerPriority.REPLICATION && !priorities.contains(HandlerPriority.REPLICATION))
-                    throw new IllegalStateException("Cannot add REPLICATION " + handler + " to " + name);
-
-                if (t1 == HandlerPriority.REPLICATION_TIMER && !priorities.contains(HandlerPriority.REPLICATION_TIMER))
-                    throw new IllegalStateException("Cannot add REPLICATION_TIMER " + handler + " to " + name);
-
-                getReplication().addHandler(handler);
+                if (!priorities.contains(t1))
+                    throw new IllegalStateException("Cannot add " + t1 + " " + handler + " to " + name);
                 break;
 
-            case CONCURRENT: {
+            case CONCURRENT:
                 if (concThreads.isEmpty())
                     throw new IllegalStateException("Cannot add CONCURRENT " + handler + " to " + name);
-                getConcThread(counter.getAndIncrement() % concThreads.size()).addHandler(handler);
                 break;
-            }
 
             default:
                 throw new IllegalArgumentException("Unknown priority " + handler.priority());
         }
     }
 
+    /**
+     * @return the event loop a handler, other than a MONITOR handler, is run on, creating it if needed
+     */
+    @NotNull
+    EventLoop eventLoopFor(@NotNull final EventHandler handler) {
+        checkCanAdd(handler);
+        switch (handler.priority()) {
+            case BLOCKING:
+                return blocking;
+
+            case REPLICATION:
+            case REPLICATION_TIMER:
+                return getReplication();
+
+            case CONCURRENT:
+                return getConcThread(concThreadIndex(handler));
+
+            default:
+                return coreFor(handler);
+        }
+    }
+
+    /**
+     * @return the existing event loops a handler may have been added to, as CONCURRENT handlers are spread across them
+     */
+    @NotNull
+    private List<EventLoop> eventLoopsWhichMayHave(@NotNull final EventHandler handler) {
+        switch (handler.priority()) {
+            case HIGH:
+            case MEDIUM:
+            case TIMER:
+            case DAEMON:
+                return core == null ? Collections.emptyList() : Collections.singletonList(coreFor(handler));
+
+            case REPLICATION:
+            case REPLICATION_TIMER:
+                final EventLoop replicationSnapshot = replication;
+                return replicationSnapshot == null ? Collections.emptyList() : Collections.singletonList(replicationSnapshot);
+
+            case CONCURRENT:
+                final List<EventLoop> loops = new ArrayList<>();
+                for (VanillaEventLoop concThread : concThreads)
+                    if (concThread != null)
+                        loops.add(concThread);
+                return loops;
+
+            default:
+                return Collections.emptyList();
+        }
+    }
+
+    /**
+     * The core event loop and its shards are only started once they have a handler. One started after this group has
+     * started is waited for as {@link #performStart()} would, so e.g. a bad binding is reported to the caller.
+     */
+    private void inUse(@NotNull final EventLoop eventLoop) {
+        if (eventLoop instanceof CoreEventLoop && coreShards.contains(eventLoop)
+                && coreShardsInUse.add((CoreEventLoop) eventLoop) && isStarted()) {
+            eventLoop.start();
+            waitToStart(eventLoop);
+        }
+    }
+
+    /**
+     * The monitor event loop of this group is only started once the group has a handler, as until then it has no
+     * event loop running to monitor
+     */
+    private void monitorInUse() {
+        if (!sharedMonitor && monitorInUse.compareAndSet(false, true) && isStarted())
+            monitor.start();
+    }
+
+    /**
+     * Run the HIGH handler of the core event loop this is called on, see {@link MediumEventLoop#yieldToHigh()}
+     *
+     * @return true if the HIGH handler was called and was busy
+     */
+    public boolean yieldToHigh() {
+        final Thread currentThread = Thread.currentThread();
+        for (CoreEventLoop coreShard : coreShards)
+            if (coreShard.thread() == currentThread)
+                return coreShard instanceof MediumEventLoop && ((MediumEventLoop) coreShard).yieldToHigh();
+        return false;
+    }
+
     public void setupTimeLimitMonitor(final long timeLimitNS, final LongSupplier timeOfStart) {
         throwExceptionIfClosed();
 
         // to cleanly shut down the runner, we cannot rely on Thread.interrupt as it
         // can cause nasty exceptions to bubble up from the guts of CQ
+        if (EventLoopHistory.ENABLED && core instanceof MediumEventLoop) {
+            final MediumEventLoop mediumCore = (MediumEventLoop) core;
+            addHandler(ThreadMonitors.forThread(
+                    name + "-monitor",
+                    timeLimitNS,
+                    timeOfStart,
+                    core::thread,
+                    () -> true,
+                    msg -> {
+                        final StringBuilder out = new StringBuilder(msg);
+                        mediumCore.dumpHistory(out);
+                        Jvm.perf().on(ThreadMonitor.class, out.toString());
+                    }));
+            return;
+        }
         addTimingMonitor(
                 name + "-monitor",
                 timeLimitNS,
@@ -251,15 +585,13 @@ public class EventGroup
     }
 
     /**
-     * Starts the event loop and waits for the core (or monitor) event loop thread to start before returning
-     * (or timing out)
+     * Starts the event loops which have handlers in parallel and waits for the core (or monitor) event loop threads to
+     * start before returning (or timing out). The others are started once they are given a handler.
      */
     @Override
     protected void performStart() {
-        if (core != null) {
-            core.start();
-            waitToStart(core);
-        }
+        final List<EventLoop> started = new ArrayList<>(coreShardsInUse);
+        started.forEach(EventLoop::start);
         if (blocking != null)
             blocking.start();
 
@@ -271,34 +603,48 @@ public class EventGroup
                 concThread.start();
         }
 
-        monitor.start();
+        // a shared monitor is already running
+        if (!sharedMonitor && monitorInUse.get()) {
+            monitor.start();
+            started.add(monitor);
+        }
         // this checks that the core threads have stalled
-        if (core != null)
-            addThreadMonitoring(MONITOR_INTERVAL_MS, core);
+        for (CoreEventLoop coreShard : coreShards)
+            addThreadMonitoring(MONITOR_INTERVAL_MS, coreShard);
 
-        waitToStart(this);
+        for (EventLoop eventLoop : started)
+            waitToStart(eventLoop);
+        signalStarted();
     }
 
     private void waitToStart(EventLoop waitfor) {
-        // wait for core to start, We use a TimingPauser, previously we waited forever
-        TimingPauser timeoutPauser = Pauser.sleepy();
         long waitStartTimeMs = System.currentTimeMillis();
-        while (!waitfor.isAlive()) {
-            try {
-                timeoutPauser.pause(WAIT_TO_START_MS, TimeUnit.MILLISECONDS);
-            } catch (TimeoutException e) {
-                long waitTime = System.currentTimeMillis() - waitStartTimeMs;
-                String threadDump = renderThreadDump();
-                Jvm.error().on(EventGroup.class, format("Timed out waiting for start! (waited %,dms)%n" +
-                                "%s%n%n" +
-                                "%s%n%n" +
-                                "%s%n",
-                        waitTime,
-                        EventLoopStateRenderer.INSTANCE.render("Core", core),
-                        EventLoopStateRenderer.INSTANCE.render("Monitor", monitor),
-                        threadDump));
-                throw Jvm.rethrow(e);
+        try {
+            if (waitfor instanceof MediumEventLoop || waitfor instanceof MonitorEventLoop || waitfor instanceof EventGroup) {
+                // these signal when their thread has started, or has stopped without starting e.g. a bad binding
+                if (!((AbstractLifecycleEventLoop) waitfor).awaitStarted(WAIT_TO_START_MS) || !waitfor.isAlive())
+                    throw new TimeoutException();
+            } else {
+                // wait for core to start, We use a TimingPauser, previously we waited forever
+                TimingPauser timeoutPauser = Pauser.sleepy();
+                while (!waitfor.isAlive())
+                    timeoutPauser.pause(WAIT_TO_START_MS, TimeUnit.MILLISECONDS);
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw Jvm.rethrow(e);
+        } catch (TimeoutException e) {
+            long waitTime = System.currentTimeMillis() - waitStartTimeMs;
+            String threadDump = renderThreadDump();
+            Jvm.error().on(EventGroup.class, format("Timed out waiting for start! (waited %,dms)%n" +
+                            "%s%n%n" +
+                            "%s%n%n" +
+                            "%s%n",
+                    waitTime,
+                    EventLoopStateRenderer.INSTANCE.render("Core", core),
+                    EventLoopStateRenderer.INSTANCE.render("Monitor", monitor),
+                    threadDump));
+            throw Jvm.rethrow(e);
         }
     }
 
@@ -325,36 +671,52 @@ public class EventGroup
     }
 
     private void performStop() {
-        monitor.stop();
-        EventLoops.stopAll(concThreads, replication, core, blocking);
+        // this group's handlers on a shared monitor remove themselves once it has stopped
+        if (!sharedMonitor)
+            monitor.stop();
+        EventLoops.stopAll(concThreads, replication, coreShards, blocking);
     }
 
     @Override
     public boolean isAlive() {
-        return (core == null ? monitor : core).isAlive();
+        // the core and monitor event loops may not have been started yet, but a core event loop stops if its thread fails
+        return isStarted() && (core == null || !core.isStopped());
     }
 
     @Override
     protected void performClose() {
         super.performClose();
         closeQuietly(
-                core,
-                monitor,
+                coreShards,
+                sharedMonitor ? null : monitor,
                 replication,
                 blocking
         );
+        if (sharedMonitor)
+            SharedMonitor.release(this, monitor);
 
         closeQuietly(concThreads);
         awaitTermination();
+        // only once the event loops have stopped, so another event group can't bind to these cores while they run
+        closeQuietly(cpuClaims);
     }
 
     @Override
     public boolean runsInsideCoreLoop() {
+        if (coreShards.size() > 1) {
+            for (CoreEventLoop coreShard : coreShards)
+                if (coreShard.runsInsideCoreLoop())
+                    return true;
+            return false;
+        }
         return core.runsInsideCoreLoop();
     }
 
     @Override
     public boolean isRunningOnThread(Thread thread) {
+        for (int i = 1; i < coreShards.size(); i++)
+            if (coreShards.get(i).isRunningOnThread(thread))
+                return true;
         return core != null && core.isRunningOnThread(thread) ||
                blocking != null && blocking.isRunningOnThread(thread) ||
                monitor.isRunningOnThread(thread);
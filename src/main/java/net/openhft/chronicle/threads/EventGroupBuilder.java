@@ -18,15 +18,19 @@
 
 package net.openhft.chronicle.threads;
 
+import net.openhft.chronicle.core.Jvm;
 import net.openhft.chronicle.core.threads.EventLoop;
 import net.openhft.chronicle.core.threads.HandlerPriority;
 import net.openhft.chronicle.core.util.Builder;
+import net.openhft.chronicle.threads.internal.CpuTopology;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.EnumSet;
-import java.util.Set;
+import java.util.*;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
+import static net.openhft.chronicle.core.io.Closeable.closeQuietly;
 import static net.openhft.chronicle.threads.EventGroup.REPLICATION_EVENT_PAUSE_TIME;
 
 /**
@@ -50,6 +54,13 @@ public class EventGroupBuilder implements Builder<EventLoop> {
     private String defaultBinding = "none";
     @NotNull
     private Supplier<Pauser> blockingPauserSupplier = PauserMode.balanced;
+    private boolean automaticBinding = false;
+    private int coreShards = 1;
+    @NotNull
+    private Supplier<Pauser> coreShardPauserSupplier = PauserMode.balanced;
+    private boolean blockingVirtualThreads = BlockingEventLoop.VIRTUAL_THREADS;
+    private int warmUpIterations = MediumEventLoop.WARM_UP_ITERATIONS;
+    private boolean sharedMonitor = SharedMonitor.ENABLED;
 
     public static EventGroupBuilder builder() {
         return new EventGroupBuilder();
@@ -58,20 +69,41 @@ public class EventGroupBuilder implements Builder<EventLoop> {
     private EventGroupBuilder() {
     }
 
-    @SuppressWarnings("deprecation")
     @Override
     public EventGroup build() {
-        return new EventGroup(daemon,
-                pauserOrDefault(),
-                replicationPauser,
-                defaultBinding(binding),
-                defaultBinding(replicationBinding),
-                name,
-                concurrentThreadsNum,
-                defaultBinding(concurrentBinding),
-                concurrentPauserSupplier,
-                priorities,
-                blockingPauserSupplier);
+        return build(automaticBinding ? CpuTopology.current() : null);
+    }
+
+    @SuppressWarnings("deprecation")
+    EventGroup build(@Nullable CpuTopology topology) {
+        // the builder is left as it was, so building again claims other cores rather than reusing these
+        final Bindings bindings = new Bindings(defaultBinding(binding), defaultBinding(replicationBinding), defaultBinding(concurrentBinding));
+        if (automaticBinding)
+            applyAutomaticBinding(topology, bindings);
+        final EventGroup eventGroup;
+        try {
+            eventGroup = new EventGroup(daemon,
+                    pauserOrDefault(),
+                    replicationPauser,
+                    bindings.core,
+                    bindings.replication,
+                    name,
+                    concurrentThreadsNum,
+                    bindings.concurrent,
+                    concurrentPauserSupplier,
+                    priorities,
+                    blockingPauserSupplier,
+                    coreShards,
+                    coreShardPauserSupplier,
+                    blockingVirtualThreads,
+                    sharedMonitor);
+        } catch (RuntimeException e) {
+            closeQuietly(bindings.claims);
+            throw e;
+        }
+        eventGroup.cpuClaims(bindings.claims);
+        eventGroup.warmUpIterations(warmUpIterations);
+        return eventGroup;
     }
 
     @NotNull
@@ -88,6 +120,139 @@ public class EventGroupBuilder implements Builder<EventLoop> {
         return this;
     }
 
+    /**
+     * Bind the core, replication and concurrent event loops to isolated physical cores, one loop per core leaving
+     * any hyperthread siblings idle, in that order while there are cores left. Only loops with a binding of
+     * {@code "none"} (the default) are bound, and the isolated CPUs are read from
+     * {@code /sys/devices/system/cpu/isolated}.
+     * <p>
+     * The monitor and blocking threads are never bound, so they run on the shared (not isolated) CPUs.
+     * The resulting layout is logged. The cores are not used by other event groups until this one is closed.
+     *
+     * @return this
+     */
+    public EventGroupBuilder bindingAutomatic() {
+        this.automaticBinding = true;
+        return this;
+    }
+
+    /**
+     * Run the HIGH, MEDIUM, TIMER and DAEMON handlers on {@code coreShards} core event loops instead of one.
+     * Handlers which implement {@link ShardKey} are routed to a shard by a consistent hash of their key, so handlers
+     * with the same key run in order on the same thread. Other handlers run on the first core event loop.
+     * <p>
+     * The binding may be a comma separated list with one binding per shard.
+     *
+     * @param coreShards the number of core event loops, at least 1
+     * @return this
+     */
+    public EventGroupBuilder withCoreShards(int coreShards) {
+        if (coreShards < 1)
+            throw new IllegalArgumentException("coreShards must be at least 1, was " + coreShards);
+        this.coreShards = coreShards;
+        return this;
+    }
+
+    /**
+     * @param coreShardPauserSupplier the pauser for each core shard after the first, which uses the {@link #withPauser(Pauser) pauser}
+     * @return this
+     */
+    public EventGroupBuilder withCoreShardPauserSupplier(@NotNull Supplier<Pauser> coreShardPauserSupplier) {
+        this.coreShardPauserSupplier = coreShardPauserSupplier;
+        return this;
+    }
+
+    /**
+     * Run the BLOCKING handlers on virtual threads on Java 21+, or platform threads otherwise.
+     * Defaults to {@code -Dchronicle.threads.blocking.virtual}.
+     *
+     * @param blockingVirtualThreads whether to use virtual threads for BLOCKING handlers
+     * @return this
+     */
+    public EventGroupBuilder withBlockingVirtualThreads(boolean blockingVirtualThreads) {
+        this.blockingVirtualThreads = blockingVirtualThreads;
+        return this;
+    }
+
+    /**
+     * Before the core event loops go live, call {@link WarmUpHandler#warmUp()} on their handlers which implement it
+     * this many times, so the handlers are compiled before the first real event. The JIT compilation time is logged afterwards.
+     * Defaults to {@code -Deventloop.warmup.iterations}, or 0.
+     *
+     * @param warmUpIterations the number of times, e.g. 20,000 for C2 to compile the handlers
+     * @return this
+     */
+    public EventGroupBuilder withWarmUpIterations(int warmUpIterations) {
+        if (warmUpIterations < 0)
+            throw new IllegalArgumentException("warmUpIterations must not be negative, was " + warmUpIterations);
+        this.warmUpIterations = warmUpIterations;
+        return this;
+    }
+
+    /**
+     * Run this group's MONITOR handlers on one monitor thread shared by all the event groups which ask for it, rather
+     * than a thread of its own. The group's handlers only run while it is started, and are removed once it stops,
+     * and the shared monitor thread is stopped once the last group using it is closed.
+     * Defaults to {@code -DeventGroup.shared.monitor}.
+     *
+     * @param sharedMonitor whether to use the shared monitor
+     * @return this
+     */
+    public EventGroupBuilder withSharedMonitor(boolean sharedMonitor) {
+        this.sharedMonitor = sharedMonitor;
+        return this;
+    }
+
+    /**
+     * Bind the loops with a binding of {@code "none"} to isolated physical cores, updating {@code bindings} with the
+     * cores claimed
+     */
+    void applyAutomaticBinding(CpuTopology topology, Bindings bindings) {
+        final boolean hasCore = priorities.stream().anyMatch(VanillaEventLoop.ALLOWED_PRIORITIES::contains);
+        final boolean hasReplication = priorities.contains(HandlerPriority.REPLICATION)
+                || priorities.contains(HandlerPriority.REPLICATION_TIMER);
+        final int concurrent = priorities.contains(HandlerPriority.CONCURRENT) ? concurrentThreadsNum : 0;
+        final boolean bindCore = hasCore && "none".equals(bindings.core);
+        final boolean bindReplication = hasReplication && "none".equals(bindings.replication);
+        final boolean bindConcurrent = concurrent > 0 && "none".equals(bindings.concurrent);
+
+        final int core = bindCore ? coreShards : 0;
+        final int wanted = core + (bindReplication ? 1 : 0) + (bindConcurrent ? concurrent : 0);
+        final CpuTopology.Claim coreClaim = topology.claimIsolatedPhysicalCores(core + (bindReplication ? 1 : 0));
+        bindings.claims.add(coreClaim);
+        final Iterator<Integer> iterator = coreClaim.cpus().iterator();
+        int claimed = 0;
+        final StringJoiner coreCpus = new StringJoiner(",");
+        for (int i = 0; i < core && iterator.hasNext(); i++) {
+            coreCpus.add(String.valueOf(iterator.next()));
+            claimed++;
+        }
+        if (coreCpus.length() > 0)
+            bindings.core = coreCpus.toString();
+        if (bindReplication && iterator.hasNext()) {
+            bindings.replication = String.valueOf(iterator.next());
+            claimed++;
+        }
+        if (bindConcurrent) {
+            // spread the concurrent event loops over the sockets so handlers can be placed by SocketPreference
+            final CpuTopology.Claim concurrentClaim = topology.claimIsolatedPhysicalCores(concurrent, true);
+            bindings.claims.add(concurrentClaim);
+            final List<Integer> concurrentCpus = concurrentClaim.cpus();
+            if (!concurrentCpus.isEmpty())
+                bindings.concurrent = concurrentCpus.stream().map(String::valueOf).collect(Collectors.joining(","));
+            claimed += concurrentCpus.size();
+        }
+
+        if (claimed < wanted)
+            Jvm.warn().on(EventGroupBuilder.class, "Only " + claimed + " of the " + wanted
+                    + " isolated physical cores wanted are available for " + name + ", " + topology);
+        Jvm.startup().on(EventGroupBuilder.class, "Automatic CPU layout for event group '" + name + "'"
+                + (hasCore ? ", core: " + bindings.core : "")
+                + (hasReplication ? ", replication: " + bindings.replication : "")
+                + (concurrent > 0 ? ", conc: " + bindings.concurrent : "")
+                + ", monitor and blocking: shared CPUs");
+    }
+
     public EventGroupBuilder bindingNoneByDefault() {
         this.defaultBinding = "none";
         return this;
@@ -151,4 +316,20 @@ public class EventGroupBuilder implements Builder<EventLoop> {
     public EventGroupBuilder withPriorities(HandlerPriority firstPriority, HandlerPriority... priorities) {
         return withPriorities(EnumSet.of(firstPriority, priorities));
     }
+
+    /**
+     * The bindings of one event group being built, and the cores claimed for them
+     */
+    static final class Bindings {
+        String core;
+        String replication;
+        String concurrent;
+        final List<CpuTopology.Claim> claims = new ArrayList<>();
+
+        Bindings(String core, String replication, String concurrent) {
+            this.core = core;
+            this.replication = replication;
+            this.concurrent = concurrent;
+        }
+    }
 }
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2016-2022 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.threads;
+
+import net.openhft.chronicle.core.threads.EventLoop;
+import net.openhft.chronicle.core.threads.HandlerPriority;
+import net.openhft.chronicle.threads.internal.EventLoopExecutorService;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * An {@link ExecutorFactory} which runs the executors' tasks from handlers on an existing event loop, so library code
+ * which asks {@link Threads#acquireExecutorService(String, int, boolean)} for an executor reuses the event loop's
+ * pinned and monitored threads rather than starting threads of its own. e.g.
+ * <pre>{@code
+ * Threads.executorFactory(new EventLoopExecutorFactory(eventGroup, HandlerPriority.BLOCKING));
+ * }</pre>
+ * Each of the {@code threads} asked for is a handler with the given priority, so with {@link HandlerPriority#BLOCKING}
+ * each gets a thread of the event group's blocking event loop, and with {@link HandlerPriority#CONCURRENT} they are
+ * spread over its concurrent event loops. Tasks which block should only be run by {@code BLOCKING} handlers.
+ * <p>
+ * The {@code daemon} flag is ignored, as the threads belong to the event loop.
+ */
+public class EventLoopExecutorFactory implements ExecutorFactory {
+    @NotNull
+    private final EventLoop eventLoop;
+    @NotNull
+    private final HandlerPriority priority;
+
+    /**
+     * Run tasks from {@link HandlerPriority#BLOCKING} handlers
+     */
+    public EventLoopExecutorFactory(@NotNull EventLoop eventLoop) {
+        this(eventLoop, HandlerPriority.BLOCKING);
+    }
+
+    public EventLoopExecutorFactory(@NotNull EventLoop eventLoop, @NotNull HandlerPriority priority) {
+        this.eventLoop = eventLoop;
+        this.priority = priority;
+    }
+
+    @Override
+    public ExecutorService acquireExecutorService(String name, int threads, boolean daemon) {
+        return new EventLoopExecutorService(name, eventLoop, priority, threads);
+    }
+
+    @Override
+    public ScheduledExecutorService acquireScheduledExecutorService(String name, boolean daemon) {
+        return new EventLoopExecutorService(name, eventLoop, priority, 1);
+    }
+}
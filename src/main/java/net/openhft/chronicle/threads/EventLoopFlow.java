@@ -0,0 +1,124 @@
+/*
+ * Copyright 2016-2022 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.threads;
+
+import net.openhft.chronicle.core.threads.EventLoop;
+import net.openhft.chronicle.threads.internal.FlowDeliveryHandler;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Adapters which deliver a reactive stream to a subscriber on an event loop, with the subscriber's demand respected through a
+ * preallocated single producer, single consumer ring, rather than by hopping through an executor's unbounded queue.
+ * <p>
+ * The interfaces have the same methods as those of {@code java.util.concurrent.Flow} and the Reactive Streams API, which this
+ * library can't use as it supports Java 8, so bridging to them is a matter of delegating each method, e.g. on Java 9+
+ * <pre>{@code
+ * Flow.Subscriber<Quote> jdkSubscriber = ...;
+ * EventLoopFlow.Subscriber<Quote> subscriber = EventLoopFlow.subscriber(eventLoop, new EventLoopFlow.Subscriber<Quote>() {
+ *     public void onSubscribe(EventLoopFlow.Subscription s) {
+ *         jdkSubscriber.onSubscribe(new Flow.Subscription() {
+ *             public void request(long n) { s.request(n); }
+ *             public void cancel() { s.cancel(); }
+ *         });
+ *     }
+ *     public void onNext(Quote quote) { jdkSubscriber.onNext(quote); }
+ *     public void onError(Throwable t) { jdkSubscriber.onError(t); }
+ *     public void onComplete() { jdkSubscriber.onComplete(); }
+ * }, 1024);
+ * }</pre>
+ * All the signals to a subscriber, including {@code onSubscribe}, are made by a handler on its event loop's thread, and no
+ * objects are allocated per element.
+ */
+public final class EventLoopFlow {
+
+    // Suppresses default constructor, ensuring non-instantiability.
+    private EventLoopFlow() {
+    }
+
+    /**
+     * Same as {@code java.util.concurrent.Flow.Publisher}
+     */
+    @FunctionalInterface
+    public interface Publisher<T> {
+        void subscribe(Subscriber<? super T> subscriber);
+    }
+
+    /**
+     * Same as {@code java.util.concurrent.Flow.Subscriber}
+     */
+    public interface Subscriber<T> {
+        void onSubscribe(Subscription subscription);
+
+        void onNext(T item);
+
+        void onError(Throwable throwable);
+
+        void onComplete();
+    }
+
+    /**
+     * Same as {@code java.util.concurrent.Flow.Subscription}
+     */
+    public interface Subscription {
+        void request(long n);
+
+        void cancel();
+    }
+
+    /**
+     * A {@link Publisher} for a single subscriber, fed by a single producer through a ring. {@link #publish(Object)} returns
+     * false when the ring is full, i.e. the subscriber isn't keeping up.
+     */
+    public interface RingPublisher<T> extends Publisher<T>, PipelinePublisher<T> {
+        /**
+         * Signal {@code onComplete} to the subscriber once it has been sent the items already published
+         */
+        void complete();
+
+        /**
+         * Signal {@code onError} to the subscriber straight away, discarding any items it hasn't been sent
+         */
+        void error(@NotNull Throwable throwable);
+    }
+
+    /**
+     * Create a publisher whose subscriber is called on an event loop. Items can be published before there is a subscriber,
+     * up to the capacity of the ring. A second subscriber is sent {@code onError}.
+     *
+     * @param eventLoop to call the subscriber on
+     * @param capacity  of the ring, rounded up to a power of two
+     */
+    @NotNull
+    public static <T> RingPublisher<T> publisher(@NotNull EventLoop eventLoop, int capacity) {
+        return new FlowDeliveryHandler.RingPublisherImpl<>(eventLoop, capacity);
+    }
+
+    /**
+     * Wrap a subscriber so it is called on an event loop. The returned subscriber requests up to {@code capacity} items
+     * from its publisher, and more as the subscriber takes them from the ring, so it never buffers more than that.
+     *
+     * @param eventLoop  to call the subscriber on
+     * @param subscriber to deliver to
+     * @param capacity   of the ring, rounded up to a power of two
+     * @return the subscriber to subscribe to a publisher, only once
+     */
+    @NotNull
+    public static <T> Subscriber<T> subscriber(@NotNull EventLoop eventLoop, @NotNull Subscriber<? super T> subscriber, int capacity) {
+        return new FlowDeliveryHandler.SubscriberImpl<>(eventLoop, subscriber, capacity);
+    }
+}
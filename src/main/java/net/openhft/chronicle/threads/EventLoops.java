@@ -36,6 +36,20 @@ public final class EventLoops {
     private EventLoops() {
     }
 
+    /**
+     * Let the HIGH handler run from within a long running MEDIUM handler, see {@link MediumEventLoop#yieldToHigh()}
+     *
+     * @param eventLoop the handler was added to, i.e. as passed to {@link net.openhft.chronicle.core.threads.EventHandler#eventLoop(EventLoop)}
+     * @return true if the HIGH handler was called and was busy
+     */
+    public static boolean yieldToHigh(EventLoop eventLoop) {
+        if (eventLoop instanceof MediumEventLoop)
+            return ((MediumEventLoop) eventLoop).yieldToHigh();
+        if (eventLoop instanceof EventGroup)
+            return ((EventGroup) eventLoop).yieldToHigh();
+        return false;
+    }
+
     /**
      * Stop many {@link EventLoop}s concurrently using {@link ForkJoinPool#commonPool()}
      * <p>
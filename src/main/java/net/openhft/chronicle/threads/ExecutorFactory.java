@@ -24,4 +24,13 @@ public interface ExecutorFactory {
     ExecutorService acquireExecutorService(String name, int threads, boolean daemon);
 
     ScheduledExecutorService acquireScheduledExecutorService(String name, boolean daemon);
+
+    /**
+     * @param name of the executor
+     * @return a scheduled executor shared by every caller with this name, which is not affected by shutdown.
+     * By default, a {@link TimerWheelExecutorService} suited to many short timeouts.
+     */
+    default ScheduledExecutorService acquireSharedScheduledExecutorService(String name) {
+        return TimerWheelExecutorService.shared(name);
+    }
 }
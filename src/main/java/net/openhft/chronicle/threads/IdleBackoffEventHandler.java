@@ -0,0 +1,135 @@
+/*
+ * Copyright 2016-2022 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.threads;
+
+import net.openhft.chronicle.core.threads.EventHandler;
+import net.openhft.chronicle.core.threads.EventLoop;
+import net.openhft.chronicle.core.threads.HandlerPriority;
+import net.openhft.chronicle.core.threads.InvalidEventHandlerException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import static net.openhft.chronicle.core.io.Closeable.closeQuietly;
+
+/**
+ * Wraps a handler which is rarely busy so it is called less often while it has nothing to do. Once the handler has returned
+ * false {@link #IDLE_CALLS} times in a row, it is only called after a back off, which starts at {@link #MIN_BACKOFF_NS} and
+ * doubles each time it is still not busy, up to the maximum interval. It is called on every iteration again as soon as it
+ * returns true, or when {@link #wake()} is called.
+ * <p>
+ * This saves the cost of calling a cold handler, and the cache lines it evicts, on a loop which busy-waits on other handlers.
+ * <pre>
+ * eventLoop.addHandler(new IdleBackoffEventHandler(handler, TimeUnit.MILLISECONDS.toNanos(1)));
+ * </pre>
+ */
+public class IdleBackoffEventHandler implements EventHandler, AutoCloseable {
+    static final int IDLE_CALLS = 100;
+    static final long MIN_BACKOFF_NS = 1_000;
+
+    private final EventHandler handler;
+    private final long maxIntervalNS;
+    @Nullable
+    private volatile EventLoop eventLoop;
+    private volatile boolean woken = false;
+    private int idleCalls = 0;
+    private long backoffNS = 0;
+    private long nextActionNS = 0;
+
+    /**
+     * @param handler       to call less often when idle
+     * @param maxIntervalNS the longest time to go without calling it
+     */
+    public IdleBackoffEventHandler(@NotNull EventHandler handler, long maxIntervalNS) {
+        if (maxIntervalNS < MIN_BACKOFF_NS)
+            throw new IllegalArgumentException("maxIntervalNS must be at least " + MIN_BACKOFF_NS + ", was " + maxIntervalNS);
+        this.handler = handler;
+        this.maxIntervalNS = maxIntervalNS;
+    }
+
+    /**
+     * Call the handler on the next iteration of its event loop, e.g. when there is work for it. This can be called from any thread.
+     */
+    public void wake() {
+        woken = true;
+        final EventLoop el = eventLoop;
+        if (el != null)
+            el.unpause();
+    }
+
+    /**
+     * @return the current back off, or 0 if the handler is called on every iteration
+     */
+    public long backoffNS() {
+        return backoffNS;
+    }
+
+    @Override
+    public void eventLoop(EventLoop eventLoop) {
+        this.eventLoop = eventLoop;
+        handler.eventLoop(eventLoop);
+    }
+
+    @Override
+    public void loopStarted() {
+        handler.loopStarted();
+    }
+
+    @Override
+    public boolean action() throws InvalidEventHandlerException {
+        if (backoffNS != 0) {
+            if (woken)
+                woken = false;
+            else if (System.nanoTime() - nextActionNS < 0)
+                return false;
+        }
+        if (handler.action()) {
+            idleCalls = 0;
+            backoffNS = 0;
+            return true;
+        }
+        if (backoffNS != 0) {
+            backoffNS = Math.min(backoffNS * 2, maxIntervalNS);
+            nextActionNS = System.nanoTime() + backoffNS;
+        } else if (++idleCalls >= IDLE_CALLS) {
+            idleCalls = 0;
+            backoffNS = MIN_BACKOFF_NS;
+            nextActionNS = System.nanoTime() + backoffNS;
+        }
+        return false;
+    }
+
+    @Override
+    public void loopFinished() {
+        handler.loopFinished();
+    }
+
+    @Override
+    public @NotNull HandlerPriority priority() {
+        return handler.priority();
+    }
+
+    @Override
+    public void close() {
+        closeQuietly(handler);
+    }
+
+    @Override
+    public String toString() {
+        return "IdleBackoff{" + handler + ", backoffNS=" + backoffNS + '}';
+    }
+}
@@ -18,6 +18,8 @@
 package net.openhft.chronicle.threads;
 
 import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.threads.internal.JfrSupport;
+import net.openhft.chronicle.threads.internal.PauseEvent;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -189,8 +191,12 @@ public class LongPauser implements Pauser, TimingPauser {
         long start = System.nanoTime();
         thread = Thread.currentThread();
         pausing.set(true);
-        if (!thread.isInterrupted())
-            LockSupport.parkNanos(delayNs);
+        if (!thread.isInterrupted()) {
+            if (JfrSupport.ENABLED)
+                PauseEvent.parkNanos(this, delayNs);
+            else
+                LockSupport.parkNanos(delayNs);
+        }
         pausing.set(false);
         long time = System.nanoTime() - start;
         timePaused += time;
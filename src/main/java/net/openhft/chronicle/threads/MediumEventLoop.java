@@ -27,14 +27,22 @@ import net.openhft.chronicle.core.threads.EventHandler;
 import net.openhft.chronicle.core.threads.EventLoop;
 import net.openhft.chronicle.core.threads.HandlerPriority;
 import net.openhft.chronicle.core.threads.InvalidEventHandlerException;
+import net.openhft.chronicle.threads.internal.DeadlineScheduler;
+import net.openhft.chronicle.threads.internal.EventLoopHistory;
 import net.openhft.chronicle.threads.internal.EventLoopUtil;
+import net.openhft.chronicle.threads.internal.HandlerActionEvent;
+import net.openhft.chronicle.threads.internal.JfrSupport;
+import net.openhft.chronicle.threads.internal.TrackedExecutors;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.locks.LockSupport;
 import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -46,6 +54,14 @@ public class MediumEventLoop extends AbstractLifecycleEventLoop implements CoreE
                     EnumSet.of(HandlerPriority.HIGH,
                             HandlerPriority.MEDIUM));
     public static final int NO_CPU = -1;
+    static final int WARM_UP_ITERATIONS = Jvm.getInteger("eventloop.warmup.iterations", 0);
+    static final long DUTY_CYCLE_WINDOW_NS = Jvm.getLong("eventloop.duty.cycle.window.ms", 1_000L) * 1_000_000;
+    static final long SATURATION_MS = Jvm.getLong("eventloop.saturation.ms", 1_000L);
+    // how long a handler waiting within one iteration on stop is given before the loop is interrupted
+    private static final long BLOCKED_IN_HANDLER_WAIT_NS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long BLOCKED_IN_HANDLER_SAMPLE_NS = TimeUnit.MICROSECONDS.toNanos(100);
+    // when to warn a loop is still running after it was interrupted
+    private static final long[] INTERRUPTED_WARN_AFTER_MS = {630, 1275};
 
     protected static final EventHandler[] NO_EVENT_HANDLERS = {};
     /**
@@ -53,24 +69,41 @@ public class MediumEventLoop extends AbstractLifecycleEventLoop implements CoreE
      */
     private final transient Object addHandlerMutex = new Object();
     private final transient Object startStopMutex = new Object();
+    // guarded by startStopMutex
+    private boolean submitted = false;
 
     @Nullable
     protected transient final EventLoop parent;
     @NotNull
     protected transient final ExecutorService service;
     protected final List<EventHandler> mediumHandlers = new CopyOnWriteArrayList<>();
-    protected final ConcurrentLinkedQueue<EventHandler> newHandlers = new ConcurrentLinkedQueue<>();
+    // handlers added one at a time or added or removed in bulk by another thread, accepted in the order they were queued
+    final ConcurrentLinkedQueue<HandlerBatch> newHandlers = new ConcurrentLinkedQueue<>();
     protected final Pauser pauser;
     protected final boolean daemon;
     private final String binding;
+    @Nullable
+    private final EventLoopHistory history = EventLoopHistory.ENABLED ? new EventLoopHistory() : null;
 
     @NotNull
     protected EventHandler[] mediumHandlersArray = NO_EVENT_HANDLERS;
     protected EventHandler highHandler = EventHandlers.NOOP;
+    // set with the mediumHandlersArray when any of them is a DeadlineEventHandler
+    @Nullable
+    private DeadlineScheduler deadlineScheduler = null;
 
     protected volatile long loopStartNS;
     @Nullable
     protected volatile Thread thread = null;
+    private volatile int warmUpIterations = WARM_UP_ITERATIONS;
+    private volatile long warmUpStartNS = 0;
+    private volatile long warmUpEndNS = 0;
+    // only accessed by the event loop thread
+    private boolean yieldingToHigh = false;
+    private volatile long saturationNS = SATURATION_MS * 1_000_000;
+    private volatile double dutyCycle = 0.0;
+    // the start of the last iteration in which no handler was busy
+    private volatile long lastIdleNS = NOT_IN_A_LOOP;
 
     /**
      * @param parent  the parent event loop
@@ -91,7 +124,7 @@ public class MediumEventLoop extends AbstractLifecycleEventLoop implements CoreE
         this.daemon = daemon;
         this.binding = binding;
         loopStartNS = NOT_IN_A_LOOP;
-        service = Executors.newSingleThreadExecutor(new NamedThreadFactory(name, daemon, null, true));
+        service = TrackedExecutors.newSingleThreadExecutor(new NamedThreadFactory(name, daemon, null, true));
 
         singleThreadedCheckDisabled(true);
     }
@@ -147,6 +180,7 @@ public class MediumEventLoop extends AbstractLifecycleEventLoop implements CoreE
         synchronized (startStopMutex) {
             try {
                 service.submit(this);
+                submitted = true;
             } catch (RejectedExecutionException e) {
                 if (!isStopped()) {
                     closeAll();
@@ -182,6 +216,44 @@ public class MediumEventLoop extends AbstractLifecycleEventLoop implements CoreE
     public void addHandler(@NotNull final EventHandler handler) {
         throwExceptionIfClosed();
 
+        checkPriority(handler);
+        addHandlerInternal(handler);
+    }
+
+    /**
+     * Add a number of handlers at once. They are accepted by the event loop together, with one update of the handlers it
+     * calls, and if the loop is running, have {@link EventHandler#loopStarted()} called together before any of them are called.
+     * <p>
+     * If any of the handlers can't be added to this loop, none of them are.
+     *
+     * @param handlers to add
+     */
+    public void addHandlers(@NotNull final Collection<? extends EventHandler> handlers) {
+        throwExceptionIfClosed();
+
+        for (EventHandler handler : handlers)
+            checkPriority(handler);
+        if (!handlers.isEmpty())
+            addBatchInternal(new HandlerBatch(handlers, true));
+    }
+
+    /**
+     * Remove a number of handlers at once, with one update of the handlers the event loop calls. As when a handler throws
+     * {@link InvalidEventHandlerException}, those removed have {@link EventHandler#loopFinished()} called and are closed.
+     * <p>
+     * When called from another thread on a running loop, the handlers are removed by the event loop thread once it
+     * finishes its current iteration.
+     *
+     * @param handlers to remove, those not on this loop are ignored
+     */
+    public void removeHandlers(@NotNull final Collection<? extends EventHandler> handlers) {
+        throwExceptionIfClosed();
+
+        if (!handlers.isEmpty())
+            addBatchInternal(new HandlerBatch(handlers, false));
+    }
+
+    protected void checkPriority(@NotNull final EventHandler handler) {
         final HandlerPriority priority = handler.priority().alias();
         if (DEBUG_ADDING_HANDLERS)
             Jvm.startup().on(getClass(), "Adding " + priority + " " + handler + " to " + this.name);
@@ -191,7 +263,6 @@ public class MediumEventLoop extends AbstractLifecycleEventLoop implements CoreE
             }
             throw new IllegalStateException(name() + ": Unexpected priority " + priority + " for " + handler);
         }
-        addHandlerInternal(handler);
     }
 
     /**
@@ -210,6 +281,34 @@ public class MediumEventLoop extends AbstractLifecycleEventLoop implements CoreE
         }
     }
 
+    /**
+     * Add or remove a batch of handlers in the same way as {@link #addHandlerInternal(EventHandler)} adds one
+     */
+    private void addBatchInternal(@NotNull HandlerBatch batch) {
+        if (thread == null) {
+            synchronized (addHandlerMutex) {
+                if (thread == null) {
+                    acceptBatch(batch);
+                    return;
+                }
+            }
+        }
+        if (thread == Thread.currentThread()) {
+            acceptBatch(batch);
+            return;
+        }
+        if (isStopped()) {
+            if (Jvm.isDebugEnabled(MediumEventLoop.class)) {
+                Jvm.debug().on(MediumEventLoop.class, "Aborted " + batch + " because event loop was stopped");
+            }
+            return;
+        }
+
+        newHandlers.offer(batch);
+
+        pauser.unpause();
+    }
+
     /**
      * This is the code used when any thread tries to add an event handler before a loop is started
      */
@@ -235,7 +334,7 @@ public class MediumEventLoop extends AbstractLifecycleEventLoop implements CoreE
             return;
         }
 
-        newHandlers.offer(handler);
+        newHandlers.offer(new HandlerBatch(handler));
 
         pauser.unpause();
     }
@@ -258,6 +357,8 @@ public class MediumEventLoop extends AbstractLifecycleEventLoop implements CoreE
                         throw new NullPointerException();
                     loopStartedAllHandlers();
                 }
+                warmUp();
+                signalStarted();
                 runLoop();
             } catch (ClosedIllegalStateException e) {
                 if (!isClosing()) {
@@ -266,12 +367,16 @@ public class MediumEventLoop extends AbstractLifecycleEventLoop implements CoreE
                 }
                 // otherwise ignore, already closed
             } finally {
+                signalStarted();
                 loopFinishedAllHandlers();
                 loopStartNS = NOT_IN_A_LOOP;
+                lastIdleNS = NOT_IN_A_LOOP;
             }
         } catch (Throwable e) {
             Jvm.warn().on(getClass(), hasBeen("terminated due to exception"), e);
             stop();
+        } finally {
+            signalTerminated();
         }
     }
 
@@ -284,6 +389,130 @@ public class MediumEventLoop extends AbstractLifecycleEventLoop implements CoreE
         updateMediumHandlersArray();
     }
 
+    /**
+     * Before the loop runs its handlers, call {@link WarmUpHandler#warmUp()} on those which implement it this many times,
+     * so the handlers are compiled before the first real event. Handlers added later are not warmed up.
+     *
+     * @param warmUpIterations the number of times, or 0 to not warm up (the default, unless {@code -Deventloop.warmup.iterations} is set)
+     */
+    public void warmUpIterations(int warmUpIterations) {
+        if (warmUpIterations < 0)
+            throw new IllegalArgumentException("warmUpIterations must not be negative, was " + warmUpIterations);
+        this.warmUpIterations = warmUpIterations;
+    }
+
+    protected void warmUpHandlers(@NotNull List<WarmUpHandler> warmUpHandlers) {
+        if (highHandler instanceof WarmUpHandler)
+            warmUpHandlers.add((WarmUpHandler) highHandler);
+        addWarmUpHandlers(mediumHandlers, warmUpHandlers);
+    }
+
+    protected static void addWarmUpHandlers(@NotNull List<EventHandler> handlers, @NotNull List<WarmUpHandler> warmUpHandlers) {
+        for (EventHandler handler : handlers)
+            if (handler instanceof WarmUpHandler)
+                warmUpHandlers.add((WarmUpHandler) handler);
+    }
+
+    private void warmUp() {
+        final int iterations = warmUpIterations;
+        if (iterations <= 0)
+            return;
+        final List<WarmUpHandler> warmUpHandlerList = new ArrayList<>();
+        warmUpHandlers(warmUpHandlerList);
+        if (warmUpHandlerList.isEmpty())
+            return;
+        // the real handlers are called directly, not through runAllHandlers(), so its call sites are only ever
+        // profiled with the handlers which run on the first event, and no action() runs while warming up
+        final WarmUpHandler[] warmUpHandlersArray = warmUpHandlerList.toArray(new WarmUpHandler[0]);
+        final long compilationMS = compilationTimeMS();
+        final long start = System.nanoTime();
+        warmUpStartNS = start;
+        int i = 0;
+        try {
+            for (; i < iterations && isStarted(); i++)
+                for (WarmUpHandler handler : warmUpHandlersArray)
+                    handler.warmUp();
+        } catch (Throwable t) {
+            Jvm.warn().on(getClass(), "Warm up of " + name + " threw, starting anyway", t);
+        } finally {
+            warmUpEndNS = System.nanoTime();
+        }
+        final long tookMS = (System.nanoTime() - start) / 1_000_000;
+        final long compiledMS = compilationTimeMS();
+        Jvm.startup().on(getClass(), "Warmed up " + warmUpHandlersArray.length + " handler(s) of " + name + " " + i + " times in " + tookMS + " ms"
+                + (compiledMS < 0 ? "" : ", JIT compilation took " + (compiledMS - compilationMS) + " ms of that, " + compiledMS + " ms in total"));
+    }
+
+    /**
+     * @return how long this loop has spent warming up, so far if it still is
+     */
+    long warmUpNS() {
+        final long startNS = warmUpStartNS;
+        if (startNS == 0)
+            return 0;
+        final long endNS = warmUpEndNS;
+        return (endNS == 0 ? System.nanoTime() : endNS) - startNS;
+    }
+
+    /**
+     * The time spent warming up, which can be much longer than it takes to start, is added to the timeout
+     */
+    @Override
+    boolean awaitStarted(long timeout, TimeUnit unit) throws InterruptedException {
+        final long deadlineNS = System.nanoTime() + unit.toNanos(timeout);
+        long remainingNS;
+        do {
+            remainingNS = deadlineNS + warmUpNS() - System.nanoTime();
+            if (super.awaitStarted(Math.max(0, remainingNS), TimeUnit.NANOSECONDS))
+                return true;
+        } while (remainingNS > 0);
+        return false;
+    }
+
+    /**
+     * @return the total time the JIT has spent compiling, or -1 if unknown
+     */
+    private static long compilationTimeMS() {
+        final CompilationMXBean compilation = ManagementFactory.getCompilationMXBean();
+        return compilation != null && compilation.isCompilationTimeMonitoringSupported()
+                ? compilation.getTotalCompilationTime()
+                : -1;
+    }
+
+    /**
+     * The fraction of the time in which some handler was busy, i.e. the time in iterations where a handler returned
+     * true over the wall time. Unlike the time paused, iterations which only poll handlers with nothing to do are not counted.
+     * <p>
+     * This is updated by the event loop thread at the end of each window, set with {@code -Deventloop.duty.cycle.window.ms} (1 second by default)
+     *
+     * @return the duty cycle from 0.0 to 1.0 over the last complete window
+     */
+    public double dutyCycle() {
+        return dutyCycle;
+    }
+
+    /**
+     * The loop is considered saturated when it has not had an iteration where no handler was busy for the
+     * {@link #saturationMS(long) saturation period}, i.e. it has no spare capacity.
+     *
+     * @return true if the loop is running and saturated
+     */
+    public boolean isSaturated() {
+        final long idleNS = lastIdleNS;
+        // not while it is pausing, as it is idle
+        return idleNS != NOT_IN_A_LOOP && loopStartNS != NOT_IN_A_LOOP && System.nanoTime() - idleNS > saturationNS;
+    }
+
+    /**
+     * @param saturationMS how long the loop must go without an idle iteration to be considered saturated,
+     *                     1000 ms unless {@code -Deventloop.saturation.ms} is set
+     */
+    public void saturationMS(long saturationMS) {
+        if (saturationMS <= 0)
+            throw new IllegalArgumentException("saturationMS must be positive, was " + saturationMS);
+        this.saturationNS = saturationMS * 1_000_000;
+    }
+
     protected void loopStartedForHandlerList(@NotNull List<EventHandler> eventHandlerList) {
         List<EventHandler> removeHandlers = new ArrayList<>();
         for (EventHandler handler : eventHandlerList) {
@@ -303,7 +532,7 @@ public class MediumEventLoop extends AbstractLifecycleEventLoop implements CoreE
         loopFinishedQuietly(highHandler);
         if (!mediumHandlers.isEmpty())
             mediumHandlers.forEach(Threads::loopFinishedQuietly);
-        newHandlers.forEach(eventHandler -> {
+        forEachNewHandler(eventHandler -> {
                     Jvm.startup().on(getClass(), "Handler in newHandler was not accepted before loop finished " + eventHandler);
                     loopFinishedQuietly(eventHandler);
                 });
@@ -312,12 +541,33 @@ public class MediumEventLoop extends AbstractLifecycleEventLoop implements CoreE
     private void runLoop() {
         int acceptHandlerModCount = EventLoopUtil.ACCEPT_HANDLER_MOD_COUNT;
         long lastTimerNS = 0;
+        // duty cycle accounting, the end of a busy iteration is the start of the next one
+        long windowStartNS = System.nanoTime();
+        long busyStartNS = NOT_IN_A_LOOP;
+        long busyNS = 0;
+        boolean saturated = false;
+        lastIdleNS = windowStartNS;
         while (isStarted()) {
             throwExceptionIfClosed();
 
-            loopStartNS = System.nanoTime();
+            final long startNS = System.nanoTime();
+            loopStartNS = startNS;
+            if (busyStartNS != NOT_IN_A_LOOP) {
+                busyNS += startNS - busyStartNS;
+                busyStartNS = NOT_IN_A_LOOP;
+            }
+            if (startNS - windowStartNS >= DUTY_CYCLE_WINDOW_NS) {
+                dutyCycle = (double) busyNS / (startNS - windowStartNS);
+                windowStartNS = startNS;
+                busyNS = 0;
+                saturated = checkSaturated(startNS, saturated);
+            }
             boolean busy =
-                    highHandler == EventHandlers.NOOP
+                    JfrSupport.ENABLED || EventLoopHistory.ENABLED
+                            ? runAllHandlersRecording()
+                            : deadlineScheduler != null
+                            ? runAllHandlersByDeadline(deadlineScheduler)
+                            : highHandler == EventHandlers.NOOP
                             ? runAllMediumHandler()
                             : runAllHandlers();
 
@@ -326,6 +576,7 @@ public class MediumEventLoop extends AbstractLifecycleEventLoop implements CoreE
                 runTimerHandlers();
             }
             if (busy) {
+                busyStartNS = startNS;
                 pauser.reset();
                 /*
                  * This is used for preventing starvation for new event handlers.
@@ -337,17 +588,37 @@ public class MediumEventLoop extends AbstractLifecycleEventLoop implements CoreE
                     acceptHandlerModCount = EventLoopUtil.ACCEPT_HANDLER_MOD_COUNT; // Re-arm
                 }
             } else {
+                lastIdleNS = startNS;
                 if (acceptNewHandlers())
                     continue;
 
                 runDaemonHandlers();
                 // indicate the iteration is complete
                 loopStartNS = NOT_IN_A_LOOP;
-                pauser.pause();
+                if (EventLoopHistory.ENABLED) {
+                    final long pauseStartNS = System.nanoTime();
+                    pauser.pause();
+                    history.pause(pauseStartNS, System.nanoTime());
+                } else {
+                    pauser.pause();
+                }
+                // the time paused was idle too
+                final long resumedNS = System.nanoTime();
+                lastIdleNS = resumedNS;
+                final DeadlineScheduler scheduler = deadlineScheduler;
+                if (scheduler != null)
+                    scheduler.resumed(resumedNS);
             }
         }
     }
 
+    private boolean checkSaturated(long nowNS, boolean wasSaturated) {
+        final boolean saturated = nowNS - lastIdleNS > saturationNS;
+        if (saturated && !wasSaturated)
+            Jvm.perf().on(getClass(), name + " is saturated, it has had no idle iteration for " + (nowNS - lastIdleNS) / 1_000_000 + " ms");
+        return saturated;
+    }
+
     protected long timerIntervalMS() {
         return Long.MAX_VALUE / 2;
     }
@@ -488,9 +759,94 @@ public class MediumEventLoop extends AbstractLifecycleEventLoop implements CoreE
         return busy;
     }
 
+    /**
+     * Used instead of the unrolled loops when JFR events or the loop history are enabled, so the unrolled loops
+     * are left untouched
+     */
+    private boolean runAllHandlersRecording() {
+        boolean busy = false;
+        final DeadlineScheduler scheduler = this.deadlineScheduler;
+        final EventHandler[] handlers = scheduler == null ? this.mediumHandlersArray : scheduler.handlers();
+        try {
+            busy |= callHighHandlerRecording();
+            // earliest deadline first if there is a scheduler, otherwise in the same order as the unrolled loops
+            final int[] order = scheduler == null ? null : scheduler.order();
+            for (int n = 0; n < handlers.length; n++) {
+                final int i = order == null ? handlers.length - 1 - n : order[n];
+                if (order != null && scheduler.hasDeadline(i))
+                    scheduler.actionAt(i, System.nanoTime());
+                final long startNS = EventLoopHistory.ENABLED ? System.nanoTime() : 0;
+                boolean handlerBusy = false;
+                try {
+                    handlerBusy = JfrSupport.ENABLED
+                            ? HandlerActionEvent.action(name, handlers[i])
+                            : handlers[i].action();
+                } catch (Exception e) {
+                    handleExceptionMediumHandler(handlers[i], e);
+                }
+                if (EventLoopHistory.ENABLED)
+                    history.handler(i, startNS, System.nanoTime(), handlerBusy);
+                busy |= handlerBusy;
+                busy |= callHighHandlerRecording();
+            }
+        } catch (Throwable e) {
+            Jvm.warn().on(getClass(), e);
+        }
+        return busy;
+    }
+
+    /**
+     * Used instead of the unrolled loops when any MEDIUM handler is a {@link DeadlineEventHandler}, to call them earliest deadline first
+     */
+    private boolean runAllHandlersByDeadline(@NotNull DeadlineScheduler scheduler) {
+        boolean busy = false;
+        final EventHandler[] handlers = scheduler.handlers();
+        try {
+            busy |= callHighHandler();
+            final int[] order = scheduler.order();
+            for (int index : order) {
+                final EventHandler handler = handlers[index];
+                if (scheduler.hasDeadline(index))
+                    scheduler.actionAt(index, System.nanoTime());
+                try {
+                    busy |= handler.action();
+                } catch (Exception e) {
+                    handleExceptionMediumHandler(handler, e);
+                }
+                busy |= callHighHandler();
+            }
+        } catch (Throwable e) {
+            Jvm.warn().on(getClass(), e);
+        }
+        return busy;
+    }
+
+    /**
+     * The number of times a {@link DeadlineEventHandler} was called later than its {@link DeadlineEventHandler#maxServiceIntervalNS()}
+     * after the previous call. This is read from the event loop thread's counters, so may be slightly out of date.
+     *
+     * @param handler a MEDIUM handler of this loop
+     * @return the number of missed deadlines, or -1 if the handler isn't a {@link DeadlineEventHandler} on this loop
+     */
+    public long deadlineMisses(@NotNull EventHandler handler) {
+        final DeadlineScheduler scheduler = deadlineScheduler;
+        return scheduler == null || !(handler instanceof DeadlineEventHandler) ? -1 : scheduler.misses(handler);
+    }
+
+    private boolean callHighHandlerRecording() {
+        if (!EventLoopHistory.ENABLED || highHandler == EventHandlers.NOOP)
+            return callHighHandler();
+        final long startNS = System.nanoTime();
+        final boolean busy = callHighHandler();
+        history.handler(EventLoopHistory.HIGH, startNS, System.nanoTime(), busy);
+        return busy;
+    }
+
     private boolean callHighHandler() {
         try {
-            return highHandler.action();
+            return JfrSupport.ENABLED
+                    ? HandlerActionEvent.action(name, highHandler)
+                    : highHandler.action();
         } catch (Exception e) {
             if (handle(this, highHandler, e)) {
                 removeHighHandler();
@@ -499,6 +855,31 @@ public class MediumEventLoop extends AbstractLifecycleEventLoop implements CoreE
         return true;
     }
 
+    /**
+     * A safe point at which a MEDIUM handler working through a large batch can let the HIGH handler run, so HIGH work
+     * isn't delayed until the batch is finished. e.g.
+     * <pre>
+     * for (int i = 0; i &lt; batch.size(); i++) {
+     *     process(batch.get(i));
+     *     if ((i &amp; 63) == 63)
+     *         EventLoops.yieldToHigh(eventLoop);
+     * }
+     * </pre>
+     * Does nothing unless called on this loop's thread. The HIGH handler itself shouldn't call this.
+     *
+     * @return true if the HIGH handler was called and was busy
+     */
+    public boolean yieldToHigh() {
+        if (highHandler == EventHandlers.NOOP || yieldingToHigh || thread != Thread.currentThread())
+            return false;
+        yieldingToHigh = true;
+        try {
+            return callHighHandler();
+        } finally {
+            yieldingToHigh = false;
+        }
+    }
+
    protected void removeHighHandler() {
         Threads.loopFinishedQuietly(highHandler);
         Closeable.closeQuietly(highHandler);
@@ -526,20 +907,41 @@ public class MediumEventLoop extends AbstractLifecycleEventLoop implements CoreE
      * <a href="https://github.com/OpenHFT/Chronicle-Threads/issues/106">Chronicle-Threads/issues/106</a>
      */
     protected void updateMediumHandlersArray() {
-        this.mediumHandlersArray = mediumHandlers.toArray(NO_EVENT_HANDLERS);
+        final EventHandler[] handlers = mediumHandlers.toArray(NO_EVENT_HANDLERS);
+        this.deadlineScheduler = DeadlineScheduler.create(handlers, deadlineScheduler);
+        this.mediumHandlersArray = handlers;
     }
 
     @HotMethod
     private boolean acceptNewHandlers() {
         boolean result = false;
-        EventHandler handler;
-        while ((handler = newHandlers.poll()) != null) {
-            addNewHandler(handler);
+        HandlerBatch batch;
+        while ((batch = newHandlers.poll()) != null) {
+            acceptBatch(batch);
             result = true;
         }
         return result;
     }
 
+    /**
+     * The handlers waiting to be accepted by the event loop, not including those waiting to be removed
+     */
+    private void forEachNewHandler(@NotNull Consumer<EventHandler> action) {
+        for (HandlerBatch batch : newHandlers) {
+            if (batch.add)
+                batch.handlers.forEach(action);
+        }
+    }
+
+    private void acceptBatch(@NotNull final HandlerBatch batch) {
+        if (batch.handler != null)
+            addNewHandler(batch.handler);
+        else if (batch.add)
+            addNewHandlers(batch.handlers);
+        else
+            removeHandlersInternal(batch.handlers);
+    }
+
     @SuppressWarnings("fallthrough")
     protected void addNewHandler(@NotNull final EventHandler handler) {
         final HandlerPriority t1 = handler.priority();
@@ -589,6 +991,101 @@ public class MediumEventLoop extends AbstractLifecycleEventLoop implements CoreE
         }
     }
 
+    private void addNewHandlers(@NotNull List<EventHandler> handlers) {
+        final List<EventHandler> added = new ArrayList<>(handlers.size());
+        for (EventHandler handler : handlers) {
+            if (!isMediumHandler(handler.priority().alias())) {
+                // there are few of these, so they are added one at a time
+                addNewHandler(handler);
+            } else if (!mediumHandlers.contains(handler) && !added.contains(handler)) {
+                clearUsedByThread(handler);
+                eventLoopQuietly(parent != null ? parent : this, handler);
+                added.add(handler);
+            }
+        }
+        if (added.isEmpty())
+            return;
+        mediumHandlers.addAll(added);
+        mediumHandlersChanged();
+
+        if (thread == Thread.currentThread()) {
+            final List<EventHandler> failed = new ArrayList<>();
+            for (EventHandler handler : added)
+                if (loopStartedCall(this, handler))
+                    failed.add(handler);
+            if (!failed.isEmpty())
+                removeHandlersInternal(failed);
+        }
+    }
+
+    /**
+     * @return whether a handler with this priority alias is added to the {@link #mediumHandlers}
+     */
+    protected boolean isMediumHandler(@NotNull HandlerPriority priority) {
+        switch (priority) {
+            case REPLICATION:
+            case CONCURRENT:
+            case DAEMON:
+            case MEDIUM:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Called after handlers have been added to the {@link #mediumHandlers} in bulk
+     */
+    protected void mediumHandlersChanged() {
+        updateMediumHandlersArray();
+    }
+
+    /**
+     * Remove these handlers from whichever list they are in, with one update of the {@link #mediumHandlersArray}
+     */
+    protected void removeHandlersInternal(@NotNull Collection<EventHandler> handlers) {
+        final boolean started = thread != null;
+        for (EventHandler handler : handlers) {
+            if (handler == highHandler) {
+                removeHighHandler();
+            } else if (mediumHandlers.contains(handler)) {
+                if (started)
+                    loopFinishedQuietly(handler);
+                Closeable.closeQuietly(handler);
+            }
+        }
+        if (mediumHandlers.removeAll(handlers))
+            updateMediumHandlersArray();
+    }
+
+    /**
+     * Handlers added or removed together, which are accepted by the loop in one go
+     */
+    static final class HandlerBatch {
+        final List<EventHandler> handlers;
+        final boolean add;
+        // set when a single handler is added by addHandler(), which is accepted as such
+        @Nullable
+        final EventHandler handler;
+
+        HandlerBatch(@NotNull Collection<? extends EventHandler> handlers, boolean add) {
+            this.handlers = new ArrayList<>(handlers);
+            this.add = add;
+            this.handler = null;
+        }
+
+        HandlerBatch(@NotNull EventHandler handler) {
+            this.handlers = Collections.singletonList(handler);
+            this.add = true;
+            this.handler = handler;
+        }
+
+        @Override
+        public String toString() {
+            return handler != null ? "add " + handler : (add ? "add " : "remove ") + handlers.size() + " handlers";
+        }
+    }
+
     /**
      * This check/assignment needs to be atomic
      */
@@ -619,9 +1116,20 @@ public class MediumEventLoop extends AbstractLifecycleEventLoop implements CoreE
             out.setLength(messageIndex);
             out.append(" An accurate stack trace could not be determined (capturing the stack trace took " + timeToTakeStackTraceMillis + "ms)");
         }
+        dumpHistory(out);
         Jvm.perf().on(getClass(), out.toString());
     }
 
+    /**
+     * Append the recent history of this loop, if enabled with the system property {@code eventloop.history.size}
+     *
+     * @param out to append to
+     */
+    public void dumpHistory(@NotNull final StringBuilder out) {
+        if (history != null)
+            history.dump(out, mediumHandlersArray, highHandler);
+    }
+
     public int nonDaemonHandlerCount() {
         return (highHandler == EventHandlers.NOOP ? 0 : 1) +
                 mediumHandlers.size();
@@ -634,7 +1142,7 @@ public class MediumEventLoop extends AbstractLifecycleEventLoop implements CoreE
     protected void closeAllHandlers() {
         Closeable.closeQuietly(highHandler);
         closeAll(mediumHandlers);
-        newHandlers.forEach(eventHandler -> {
+        forEachNewHandler(eventHandler -> {
                     Jvm.startup().on(getClass(), "Handler in newHandler was not accepted before close " + eventHandler);
                     Closeable.closeQuietly(eventHandler);
                 });
@@ -674,32 +1182,77 @@ public class MediumEventLoop extends AbstractLifecycleEventLoop implements CoreE
         }
     }
 
+    /**
+     * Wait for the loop to exit once it sees it has been stopped. A handler waiting in the middle of an iteration won't
+     * see this until it is interrupted, so stop waiting once a handler has been seen waiting throughout the same
+     * iteration for a short deadline.
+     *
+     * @return true if the loop exited
+     */
+    private boolean awaitTerminatedUnlessBlocked() {
+        final long endNS = System.nanoTime() + SHUTDOWN_WAIT_MILLIS * 1_000_000;
+        long blockedIterationStartNS = NOT_IN_A_LOOP;
+        long blockedSinceNS = 0;
+        while (true) {
+            final long iterationStartNS = loopStartNS;
+            final long nowNS = System.nanoTime();
+            if (iterationStartNS == NOT_IN_A_LOOP || !blockedInHandler()) {
+                blockedIterationStartNS = NOT_IN_A_LOOP;
+            } else if (iterationStartNS != blockedIterationStartNS) {
+                blockedIterationStartNS = iterationStartNS;
+                blockedSinceNS = nowNS;
+            } else if (nowNS - blockedSinceNS >= BLOCKED_IN_HANDLER_WAIT_NS) {
+                return false;
+            }
+            final long remainingNS = endNS - nowNS;
+            if (remainingNS <= 0)
+                return false;
+            if (awaitTerminated(Math.min(remainingNS, BLOCKED_IN_HANDLER_SAMPLE_NS), TimeUnit.NANOSECONDS))
+                return true;
+        }
+    }
+
+    /**
+     * The pauser is not called during an iteration, so a waiting thread is waiting in a handler
+     */
+    private boolean blockedInHandler() {
+        final Thread threadSnapshot = this.thread;
+        if (threadSnapshot == null)
+            return false;
+        switch (threadSnapshot.getState()) {
+            case BLOCKED:
+            case WAITING:
+            case TIMED_WAITING:
+                return true;
+            default:
+                return false;
+        }
+    }
+
     private void shutdownService() {
         LockSupport.unpark(thread);
+        // the loop exits once it sees it has been stopped, only interrupt it if it doesn't by the deadline
+        if (submitted && thread != Thread.currentThread() && awaitTerminatedUnlessBlocked()) {
+            Threads.shutdown(service, daemon);
+            return;
+        }
         Threads.shutdown(service, daemon);
         if (thread != null && thread != Thread.currentThread()) {
             long startTimeMillis = System.currentTimeMillis();
-            long waitUntilMs = startTimeMillis;
             thread.interrupt();
 
-            for (int i = 1; i <= 50; i++) {
-                if (!thread.isAlive())
+            // the loop signals it has terminated before its thread exits
+            for (long warnAfterMS : INTERRUPTED_WARN_AFTER_MS) {
+                if (awaitTerminated(startTimeMillis + warnAfterMS - System.currentTimeMillis()))
                     break;
-                // we do this loop below to protect from Jvm.pause not pausing for as long as it should
-                waitUntilMs += i;
-                while (System.currentTimeMillis() < waitUntilMs)
-                    Jvm.pause(i);
-
-                if (i == 35 || i == 50) {
-                    final StringBuilder sb = new StringBuilder();
-                    long ms = System.currentTimeMillis() - startTimeMillis;
-                    sb.append(name).append(": Shutting down thread is executing after ").
-                            append(ms).append("ms ").append(thread)
-                            .append(", " + "handlerCount=").append(nonDaemonHandlerCount());
-                    Jvm.trimStackTrace(sb, thread.getStackTrace());
-                    Jvm.warn().on(getClass(), sb.toString());
-                    dumpRunningHandlers();
-                }
+                final StringBuilder sb = new StringBuilder();
+                long ms = System.currentTimeMillis() - startTimeMillis;
+                sb.append(name).append(": Shutting down thread is executing after ").
+                        append(ms).append("ms ").append(thread)
+                        .append(", " + "handlerCount=").append(nonDaemonHandlerCount());
+                Jvm.trimStackTrace(sb, thread.getStackTrace());
+                Jvm.warn().on(getClass(), sb.toString());
+                dumpRunningHandlers();
             }
         }
     }
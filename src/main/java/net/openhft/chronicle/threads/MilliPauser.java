@@ -17,6 +17,8 @@
  */
 package net.openhft.chronicle.threads;
 
+import net.openhft.chronicle.threads.internal.JfrSupport;
+import net.openhft.chronicle.threads.internal.PauseEvent;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -134,8 +136,12 @@ public class MilliPauser implements Pauser {
         long start = System.nanoTime();
         thread = Thread.currentThread();
         pausing.set(true);
-        if (!thread.isInterrupted())
-            LockSupport.parkNanos(delayMS * 1_000_000L);
+        if (!thread.isInterrupted()) {
+            if (JfrSupport.ENABLED)
+                PauseEvent.parkNanos(this, delayMS * 1_000_000L);
+            else
+                LockSupport.parkNanos(delayMS * 1_000_000L);
+        }
         pausing.set(false);
         long time = System.nanoTime() - start;
         timePaused += time;
@@ -25,24 +25,41 @@ import net.openhft.chronicle.core.threads.EventHandler;
 import net.openhft.chronicle.core.threads.EventLoop;
 import net.openhft.chronicle.core.threads.HandlerPriority;
 import net.openhft.chronicle.core.threads.InvalidEventHandlerException;
+import net.openhft.chronicle.threads.internal.TrackedExecutors;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
 
 import static net.openhft.chronicle.threads.Threads.*;
 
 public class MonitorEventLoop extends AbstractLifecycleEventLoop implements Runnable, EventLoop {
     public static final String MONITOR_INITIAL_DELAY = "MonitorInitialDelay";
     static int MONITOR_INITIAL_DELAY_MS = Jvm.getInteger(MONITOR_INITIAL_DELAY, 10_000);
+    // the longest the loop sleeps with only timed handlers, in case a deadline changes
+    private static final long MAX_PARK_NS = TimeUnit.SECONDS.toNanos(1);
+    private static final int IDLE = 0, BUSY = 1, REMOVE = -1;
 
     private transient final ExecutorService service;
     private transient final EventLoop parent;
-    private final List<EventHandler> handlers = new CopyOnWriteArrayList<>();
+    private final List<IdempotentLoopStartedEventHandler> handlers = new CopyOnWriteArrayList<>();
+    private final Queue<IdempotentLoopStartedEventHandler> newHandlers = new ConcurrentLinkedQueue<>();
+    private final Queue<Predicate<EventHandler>> handlersToRemove = new ConcurrentLinkedQueue<>();
+    // only accessed by the event loop thread
+    private final List<IdempotentLoopStartedEventHandler> polledHandlers = new ArrayList<>();
+    private final PriorityQueue<IdempotentLoopStartedEventHandler> timedHandlers =
+            new PriorityQueue<>((a, b) -> Long.signum(a.nextActionNS - b.nextActionNS));
     private final Pauser pauser;
     private transient volatile Thread thread = null;
+    private volatile boolean submitted = false;
 
     public MonitorEventLoop(final EventLoop parent, final Pauser pauser) {
         this(parent, "", pauser);
@@ -52,18 +69,22 @@ public class MonitorEventLoop extends AbstractLifecycleEventLoop implements Runn
         super(name + (withSlash(parent == null ? "" : parent.name())) + "event~loop~monitor");
         this.parent = parent;
         this.pauser = pauser;
-        service = Executors.newSingleThreadExecutor(
+        service = TrackedExecutors.newSingleThreadExecutor(
                 new NamedThreadFactory(name, true, null, true));
     }
 
     @Override
     protected void performStart() {
         service.submit(this);
+        submitted = true;
     }
 
     @Override
     public void unpause() {
         pauser.unpause();
+        final Thread t = thread;
+        if (t != null)
+            LockSupport.unpark(t);
     }
 
     @Override
@@ -78,6 +99,9 @@ public class MonitorEventLoop extends AbstractLifecycleEventLoop implements Runn
 
     private void performStop() {
         unpause();
+        // the loop exits once it sees it has been stopped, only interrupt it if it doesn't by the deadline
+        if (submitted && thread != Thread.currentThread())
+            awaitTerminated(SHUTDOWN_WAIT_MILLIS);
         Threads.shutdownDaemon(service);
     }
 
@@ -95,25 +119,56 @@ public class MonitorEventLoop extends AbstractLifecycleEventLoop implements Runn
         if (isClosed())
             throw new IllegalStateException("Event Group has been closed");
         eventLoopQuietly(parent, handler);
-        if (!handlers.contains(handler))
-            handlers.add(new IdempotentLoopStartedEventHandler(handler));
+        if (!handlers.contains(handler)) {
+            final IdempotentLoopStartedEventHandler idempotent = new IdempotentLoopStartedEventHandler(handler);
+            handlers.add(idempotent);
+            newHandlers.add(idempotent);
+            // it may be sleeping until a later deadline
+            unpause();
+        }
+    }
+
+    /**
+     * Remove the handlers which match, as though they had thrown {@link InvalidEventHandlerException}. This is done on
+     * the event loop thread, which is woken to do it.
+     *
+     * @param filter of the handlers to remove
+     */
+    void removeHandlersIf(@NotNull Predicate<EventHandler> filter) {
+        handlersToRemove.add(filter);
+        unpause();
     }
 
     @Override
     @HotMethod
     public void run() {
-        throwExceptionIfClosed();
+        try {
+            throwExceptionIfClosed();
+        } catch (IllegalStateException e) {
+            signalTerminated();
+            throw e;
+        }
 
         try {
             thread = Thread.currentThread();
+            signalStarted();
             // don't do any monitoring for the first MONITOR_INITIAL_DELAY_MS ms
             final long waitUntilMs = System.currentTimeMillis() + MONITOR_INITIAL_DELAY_MS;
-            while (System.currentTimeMillis() < waitUntilMs && isStarted())
+            while (System.currentTimeMillis() < waitUntilMs && isStarted()) {
+                removeHandlersToRemove();
                 pauser.pause();
+            }
             pauser.reset();
             while (isStarted() && !Thread.currentThread().isInterrupted()) {
-                boolean busy;
-                busy = runHandlers();
+                acceptNewHandlers();
+                removeHandlersToRemove();
+                final boolean busy = runHandlers();
+                final long nextActionNS = runTimedHandlers();
+                if (polledHandlers.isEmpty()) {
+                    // nothing needs polling, so sleep until the next deadline
+                    LockSupport.parkNanos(this, Math.min(MAX_PARK_NS, nextActionNS - System.nanoTime()));
+                    continue;
+                }
                 pauser.pause();
                 if (busy)
                     pauser.reset();
@@ -121,43 +176,111 @@ public class MonitorEventLoop extends AbstractLifecycleEventLoop implements Runn
         } catch (Throwable e) {
             Jvm.warn().on(getClass(), e);
         } finally {
+            signalStarted();
             synchronized (this) {
                 handlers.forEach(Threads::loopFinishedQuietly);
             }
+            signalTerminated();
+        }
+    }
+
+    private void acceptNewHandlers() {
+        for (IdempotentLoopStartedEventHandler handler; (handler = newHandlers.poll()) != null; ) {
+            if (handler.scheduledHandler == null) {
+                polledHandlers.add(handler);
+            } else {
+                handler.nextActionNS = System.nanoTime();
+                timedHandlers.add(handler);
+            }
+        }
+    }
+
+    private void removeHandlersToRemove() {
+        for (Predicate<EventHandler> filter; (filter = handlersToRemove.poll()) != null; ) {
+            for (IdempotentLoopStartedEventHandler handler : handlers) {
+                if (!filter.test(handler.eventHandler))
+                    continue;
+                // by identity, as the handler's equals() is its delegate's
+                newHandlers.removeIf(h -> h == handler);
+                polledHandlers.removeIf(h -> h == handler);
+                timedHandlers.removeIf(h -> h == handler);
+                removeHandler(handler);
+            }
         }
     }
 
+    /**
+     * Call the handlers which aren't {@link ScheduledMonitorHandler}s, as they have to be polled on every tick
+     *
+     * @return true if any were busy
+     */
     @HotMethod
     private boolean runHandlers() {
         boolean busy = false;
-        for (int i = 0; i < handlers.size(); i++) {
-            final EventHandler handler = handlers.get(i);
+        for (int i = 0; i < polledHandlers.size(); i++) {
+            final IdempotentLoopStartedEventHandler handler = polledHandlers.get(i);
+            final int result = runHandler(handler);
+            if (result == REMOVE) {
+                polledHandlers.remove(i--);
+                removeHandler(handler);
+            } else if (result == BUSY) {
+                busy = true;
+            }
+        }
+        return busy;
+    }
+
+    /**
+     * Call the {@link ScheduledMonitorHandler}s which are due, in order of their deadline
+     *
+     * @return the time the next is due
+     */
+    @HotMethod
+    private long runTimedHandlers() {
+        final long nowNS = System.nanoTime();
+        IdempotentLoopStartedEventHandler handler;
+        while ((handler = timedHandlers.peek()) != null && handler.nextActionNS - nowNS <= 0) {
+            timedHandlers.poll();
+            if (runHandler(handler) == REMOVE) {
+                removeHandler(handler);
+                continue;
+            }
+            long nextActionNS = nowNS + 1;
             try {
-                if (loopStartedCall(this, handler)) {
-                    removeHandler(i--);
-                    continue;
-                }
-                busy |= handler.action();
-            } catch (InvalidEventHandlerException e) {
-                removeHandler(i--);
+                nextActionNS = handler.scheduledHandler.nextActionNS();
             } catch (Exception e) {
                 Jvm.warn().on(getClass(), "Exception thrown by handler " + handler, e);
-                removeHandler(i--);
             }
+            // never run again in this pass
+            handler.nextActionNS = nextActionNS - nowNS > 0 ? nextActionNS : nowNS + 1;
+            timedHandlers.add(handler);
         }
-        return busy;
+        return handler == null ? nowNS + MAX_PARK_NS : handler.nextActionNS;
     }
 
-    private synchronized void removeHandler(int handlerIndex) {
+    private int runHandler(EventHandler handler) {
         try {
-            EventHandler removedHandler = handlers.remove(handlerIndex);
-            loopFinishedQuietly(removedHandler);
-            Closeable.closeQuietly(removedHandler);
-        } catch (ArrayIndexOutOfBoundsException e) {
-            if (!handlers.isEmpty()) {
-                Jvm.warn().on(MonitorEventLoop.class, "Error removing handler!");
+            if (loopStartedCall(this, handler))
+                return REMOVE;
+            return handler.action() ? BUSY : IDLE;
+        } catch (InvalidEventHandlerException e) {
+            return REMOVE;
+        } catch (Exception e) {
+            Jvm.warn().on(getClass(), "Exception thrown by handler " + handler, e);
+            return REMOVE;
+        }
+    }
+
+    private synchronized void removeHandler(IdempotentLoopStartedEventHandler handler) {
+        // by identity, as the handler's equals() is its delegate's
+        for (int i = 0; i < handlers.size(); i++) {
+            if (handlers.get(i) == handler) {
+                handlers.remove(i);
+                break;
             }
         }
+        loopFinishedQuietly(handler);
+        Closeable.closeQuietly(handler);
     }
 
     @Override
@@ -181,11 +304,14 @@ public class MonitorEventLoop extends AbstractLifecycleEventLoop implements Runn
     private static final class IdempotentLoopStartedEventHandler extends AbstractCloseable implements EventHandler {
 
         private transient final EventHandler eventHandler;
+        private transient final ScheduledMonitorHandler scheduledHandler;
         private final String handler;
         private boolean loopStarted = false;
+        long nextActionNS;
 
         public IdempotentLoopStartedEventHandler(@NotNull EventHandler eventHandler) {
             this.eventHandler = eventHandler;
+            this.scheduledHandler = eventHandler instanceof ScheduledMonitorHandler ? (ScheduledMonitorHandler) eventHandler : null;
             handler = eventHandler.toString();
         }
 
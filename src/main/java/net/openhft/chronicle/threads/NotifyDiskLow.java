@@ -6,4 +6,15 @@ public interface NotifyDiskLow {
     void panic(FileStore fileStore);
 
     void warning(double diskSpaceFullPercent, FileStore fileStore);
+
+    /**
+     * Called when the disk is predicted to fill up soon at the rate it has been filling, so the producers can roll or
+     * archive their files before it does.
+     *
+     * @param timeToFullMS   the predicted time until there is no unallocated space left
+     * @param bytesPerSecond the recent rate at which the disk has been filling
+     * @param fileStore      the disk
+     */
+    default void fillingUp(long timeToFullMS, double bytesPerSecond, FileStore fileStore) {
+    }
 }
@@ -3,8 +3,13 @@ package net.openhft.chronicle.threads;
 import net.openhft.chronicle.core.Jvm;
 
 import java.nio.file.FileStore;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class NotifyDiskLowLogWarn implements NotifyDiskLow {
+    // the predicted time to full last warned of for each disk
+    private final Map<FileStore, Long> timeToFullWarnedMS = new ConcurrentHashMap<>();
+
     @Override
     public void panic(FileStore fileStore) {
         Jvm.error().on(DiskSpaceMonitor.class, "your disk " + fileStore + " is almost full, " +
@@ -17,4 +22,20 @@ public class NotifyDiskLowLogWarn implements NotifyDiskLow {
                 + " is " + diskSpaceFullPercent + "% full, " +
                 "warning: the JVM may crash if it undertakes an operation with a memory-mapped file and the disk is out of space.");
     }
+
+    /**
+     * Warns the first time, then only once the predicted time to full has halved since the last warning, as this is
+     * checked many times while a disk fills. It warns again if the time more than doubles, e.g. the disk filled,
+     * space was freed and now it is filling again.
+     */
+    @Override
+    public void fillingUp(long timeToFullMS, double bytesPerSecond, FileStore fileStore) {
+        final Long lastWarnedMS = timeToFullWarnedMS.get(fileStore);
+        if (lastWarnedMS != null && timeToFullMS > lastWarnedMS / 2 && timeToFullMS / 2 <= lastWarnedMS)
+            return;
+        timeToFullWarnedMS.put(fileStore, timeToFullMS);
+        Jvm.warn().on(DiskSpaceMonitor.class, "your disk " + fileStore
+                + " is filling at " + Math.round(bytesPerSecond * 100 / (1 << 20)) / 100.0 + " MB/s and is predicted to be full in "
+                + timeToFullMS / 1000 + " seconds");
+    }
 }
@@ -0,0 +1,303 @@
+/*
+ * Copyright 2016-2022 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.threads;
+
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.core.threads.HandlerPriority;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A MONITOR handler which samples a number of {@link Pauser}s and keeps rolling window metrics for each, which can be
+ * read without allocating with {@link #read(int, Stats)} e.g. by a metrics agent.
+ * <p>
+ * The pausers only count their total pause time and number of pauses, so the pause percentiles are of the average pause
+ * in each sample interval. With debug enabled for this class, the metrics are also logged every 5 minutes.
+ */
+public class PauserMetrics implements ScheduledMonitorHandler {
+    static final int WINDOW = Jvm.getInteger("pauser.metrics.window", 60);
+    private static final long LOG_INTERVAL_NS = TimeUnit.MINUTES.toNanos(5);
+
+    private final List<Entry> entries = new CopyOnWriteArrayList<>();
+    private final long sampleIntervalNS;
+    private final int window;
+    private final boolean logEnabled = Jvm.isDebugEnabled(PauserMetrics.class);
+    private long nextSampleNS = System.nanoTime();
+    private long nextLogNS = nextSampleNS + LOG_INTERVAL_NS;
+
+    /**
+     * Sample every second, keeping {@code -Dpauser.metrics.window} (default 60) samples
+     */
+    public PauserMetrics() {
+        this(1_000, WINDOW);
+    }
+
+    /**
+     * @param sampleIntervalMS how often to sample the pausers
+     * @param window           the number of samples the metrics are over
+     */
+    public PauserMetrics(long sampleIntervalMS, int window) {
+        if (sampleIntervalMS < 1)
+            throw new IllegalArgumentException("sampleIntervalMS must be positive, was " + sampleIntervalMS);
+        if (window < 1)
+            throw new IllegalArgumentException("window must be positive, was " + window);
+        this.sampleIntervalNS = TimeUnit.MILLISECONDS.toNanos(sampleIntervalMS);
+        this.window = window;
+    }
+
+    /**
+     * Add a pauser to sample. It is only weakly referenced, and its metrics are zero once it has been collected.
+     *
+     * @param name   to report the pauser as
+     * @param pauser to sample
+     */
+    public void add(String name, Pauser pauser) {
+        entries.add(new Entry(name, pauser, window));
+    }
+
+    /**
+     * @return the number of pausers added
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @param index of the pauser, in the order it was added
+     * @return the name of the pauser
+     */
+    public String name(int index) {
+        return entries.get(index).name;
+    }
+
+    /**
+     * Copy the latest metrics for a pauser, without allocating
+     *
+     * @param index of the pauser, in the order it was added
+     * @param into  to copy the metrics into
+     * @return false if there is no pauser at that index
+     */
+    public boolean read(int index, @NotNull Stats into) {
+        if (index < 0 || index >= entries.size())
+            return false;
+        into.copyFrom(entries.get(index).current);
+        return true;
+    }
+
+    @Override
+    public boolean action() {
+        final long nowNS = System.nanoTime();
+        if (nowNS - nextSampleNS >= 0)
+            sample(nowNS);
+        return false;
+    }
+
+    void sample(long nowNS) {
+        for (int i = 0; i < entries.size(); i++)
+            entries.get(i).sample(nowNS);
+        nextSampleNS = nowNS + sampleIntervalNS;
+        if (logEnabled && nowNS - nextLogNS >= 0) {
+            log();
+            nextLogNS = nowNS + LOG_INTERVAL_NS;
+        }
+    }
+
+    private void log() {
+        for (int i = 0; i < entries.size(); i++) {
+            final Entry entry = entries.get(i);
+            Jvm.perf().on(getClass(), entry.name + ": " + entry.current);
+        }
+    }
+
+    @Override
+    public long nextActionNS() {
+        return nextSampleNS;
+    }
+
+    @Override
+    public @NotNull HandlerPriority priority() {
+        return HandlerPriority.MONITOR;
+    }
+
+    @Override
+    public String toString() {
+        return "PauserMetrics{" +
+                "pausers=" + entries.size() +
+                '}';
+    }
+
+    /**
+     * The metrics of a pauser over the window, reused so reading them doesn't allocate.
+     */
+    public static final class Stats {
+        private double busyPercent;
+        private long pauseCount;
+        private double wakeupsPerSecond;
+        private double averagePauseUS;
+        private double p50PauseUS;
+        private double p90PauseUS;
+        private double p99PauseUS;
+        private double maxPauseUS;
+        private long windowMS;
+
+        void copyFrom(Stats stats) {
+            busyPercent = stats.busyPercent;
+            pauseCount = stats.pauseCount;
+            wakeupsPerSecond = stats.wakeupsPerSecond;
+            averagePauseUS = stats.averagePauseUS;
+            p50PauseUS = stats.p50PauseUS;
+            p90PauseUS = stats.p90PauseUS;
+            p99PauseUS = stats.p99PauseUS;
+            maxPauseUS = stats.maxPauseUS;
+            windowMS = stats.windowMS;
+        }
+
+        /**
+         * @return the percentage of the time the pauser was not pausing
+         */
+        public double busyPercent() {
+            return busyPercent;
+        }
+
+        public long pauseCount() {
+            return pauseCount;
+        }
+
+        public double wakeupsPerSecond() {
+            return wakeupsPerSecond;
+        }
+
+        public double averagePauseUS() {
+            return averagePauseUS;
+        }
+
+        /**
+         * @return the median of the average pause in each sample
+         */
+        public double p50PauseUS() {
+            return p50PauseUS;
+        }
+
+        public double p90PauseUS() {
+            return p90PauseUS;
+        }
+
+        public double p99PauseUS() {
+            return p99PauseUS;
+        }
+
+        public double maxPauseUS() {
+            return maxPauseUS;
+        }
+
+        /**
+         * @return the time the metrics are over, which is less than the full window until it has filled
+         */
+        public long windowMS() {
+            return windowMS;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("busy=%.1f%%, pauses=%,d, wakeups/s=%.1f, avg pause=%.1f us, p50=%.1f us, p90=%.1f us, p99=%.1f us, max=%.1f us over %,d ms",
+                    busyPercent, pauseCount, wakeupsPerSecond, averagePauseUS, p50PauseUS, p90PauseUS, p99PauseUS, maxPauseUS, windowMS);
+        }
+    }
+
+    private static final class Entry {
+        final String name;
+        final WeakReference<Pauser> pauser;
+        // ring buffers of the change in each sample
+        final long[] timeNS;
+        final long[] pausedMS;
+        final long[] count;
+        // the average pause of each sample, sorted for the percentiles
+        final double[] sorted;
+        // double buffered, so a reader copies one while the other is written
+        final Stats[] stats = {new Stats(), new Stats()};
+        volatile Stats current = stats[0];
+        int samples;
+        boolean sampled;
+        long lastNS;
+        long lastPausedMS;
+        long lastCount;
+
+        Entry(String name, Pauser pauser, int window) {
+            this.name = name;
+            this.pauser = new WeakReference<>(pauser);
+            this.timeNS = new long[window];
+            this.pausedMS = new long[window];
+            this.count = new long[window];
+            this.sorted = new double[window];
+        }
+
+        void sample(long nowNS) {
+            final Pauser p = pauser.get();
+            final long paused = p == null ? lastPausedMS : p.timePaused();
+            final long counted = p == null ? lastCount : p.countPaused();
+            if (sampled) {
+                final int i = samples++ % timeNS.length;
+                timeNS[i] = nowNS - lastNS;
+                pausedMS[i] = paused - lastPausedMS;
+                count[i] = counted - lastCount;
+                publish();
+            }
+            sampled = true;
+            lastNS = nowNS;
+            lastPausedMS = paused;
+            lastCount = counted;
+        }
+
+        private void publish() {
+            final int n = Math.min(samples, timeNS.length);
+            long totalNS = 0, totalPausedMS = 0, totalCount = 0;
+            int pausing = 0;
+            for (int i = 0; i < n; i++) {
+                totalNS += timeNS[i];
+                totalPausedMS += pausedMS[i];
+                totalCount += count[i];
+                if (count[i] > 0)
+                    sorted[pausing++] = pausedMS[i] * 1e3 / count[i];
+            }
+            Arrays.sort(sorted, 0, pausing);
+
+            final Stats next = current == stats[0] ? stats[1] : stats[0];
+            final double totalMS = totalNS / 1e6;
+            next.busyPercent = totalMS <= 0 ? 0 : Math.max(0, 100 * (totalMS - totalPausedMS) / totalMS);
+            next.pauseCount = totalCount;
+            next.wakeupsPerSecond = totalNS <= 0 ? 0 : totalCount * 1e9 / totalNS;
+            next.averagePauseUS = totalCount == 0 ? 0 : totalPausedMS * 1e3 / totalCount;
+            next.p50PauseUS = percentile(pausing, 0.5);
+            next.p90PauseUS = percentile(pausing, 0.9);
+            next.p99PauseUS = percentile(pausing, 0.99);
+            next.maxPauseUS = pausing == 0 ? 0 : sorted[pausing - 1];
+            next.windowMS = totalNS / 1_000_000;
+            current = next;
+        }
+
+        private double percentile(int n, double fraction) {
+            return n == 0 ? 0 : sorted[Math.min(n - 1, (int) Math.ceil(n * fraction) - 1)];
+        }
+    }
+}
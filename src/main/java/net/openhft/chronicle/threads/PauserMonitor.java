@@ -18,7 +18,6 @@
 package net.openhft.chronicle.threads;
 
 import net.openhft.chronicle.core.Jvm;
-import net.openhft.chronicle.core.threads.EventHandler;
 import net.openhft.chronicle.core.threads.HandlerPriority;
 import net.openhft.chronicle.core.threads.InvalidEventHandlerException;
 import org.jetbrains.annotations.NotNull;
@@ -26,7 +25,7 @@ import org.jetbrains.annotations.NotNull;
 import java.lang.ref.WeakReference;
 
 @Deprecated(/* Remove in .25. Moving to Services */)
-public class PauserMonitor implements EventHandler {
+public class PauserMonitor implements ScheduledMonitorHandler {
 
     public static final boolean PERF_ENABLED = Jvm.isDebugEnabled(PauserMonitor.class);
     @NotNull
@@ -80,6 +79,11 @@ public class PauserMonitor implements EventHandler {
         return true;
     }
 
+    @Override
+    public long nextActionNS() {
+        return System.nanoTime() + Math.max(0, nextLongTime - System.currentTimeMillis()) * 1_000_000L;
+    }
+
     @NotNull
     @Override
     public HandlerPriority priority() {
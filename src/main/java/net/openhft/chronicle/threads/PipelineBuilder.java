@@ -0,0 +1,127 @@
+/*
+ * Copyright 2016-2022 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.threads;
+
+import net.openhft.chronicle.core.threads.EventLoop;
+import net.openhft.chronicle.core.threads.HandlerPriority;
+import net.openhft.chronicle.core.util.Builder;
+import net.openhft.chronicle.threads.internal.PipelineStageHandler;
+import net.openhft.chronicle.threads.internal.SpscRing;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds a pipeline of stages, each run by a handler on an event loop, connected by preallocated single producer,
+ * single consumer rings. e.g.
+ * <pre>{@code
+ * PipelinePublisher<Order> orders = PipelineBuilder.<Order>builder()
+ *         .withName("orders")
+ *         .stage(eventGroup, (order, out) -> out.publish(validate(order)))
+ *         .stage(eventGroup, HandlerPriority.CONCURRENT, (order, out) -> persist(order))
+ *         .build();
+ * }</pre>
+ * Publishing an event only unparks the next stage's thread when that stage has found its ring empty, and a full ring
+ * is reported to the publisher rather than blocking or allocating.
+ * <p>
+ * The publisher returned by {@link #build()} has a single producer, so it must only be called from one thread at a time.
+ *
+ * @param <I> the type of events published to the pipeline
+ * @param <T> the type of events published by the last stage added
+ */
+public class PipelineBuilder<I, T> implements Builder<PipelinePublisher<I>> {
+    private static final PipelinePublisher<Object> DISCARD = event -> true;
+
+    private final List<StageDefinition> stages = new ArrayList<>();
+    private int capacity = 1024;
+    @NotNull
+    private String name = "pipeline";
+
+    public static <I> PipelineBuilder<I, I> builder() {
+        return new PipelineBuilder<>();
+    }
+
+    private PipelineBuilder() {
+    }
+
+    /**
+     * @param capacity of the ring in front of each stage, rounded up to a power of two
+     * @return this
+     */
+    public PipelineBuilder<I, T> withCapacity(int capacity) {
+        this.capacity = capacity;
+        return this;
+    }
+
+    public PipelineBuilder<I, T> withName(@NotNull String name) {
+        this.name = name;
+        return this;
+    }
+
+    /**
+     * Add a {@link HandlerPriority#MEDIUM} stage
+     */
+    public <O> PipelineBuilder<I, O> stage(@NotNull EventLoop eventLoop, @NotNull PipelineStage<? super T, O> stage) {
+        return stage(eventLoop, HandlerPriority.MEDIUM, stage);
+    }
+
+    /**
+     * Add a stage run by a handler with the given priority, which must be supported by the event loop.
+     */
+    @SuppressWarnings("unchecked")
+    public <O> PipelineBuilder<I, O> stage(@NotNull EventLoop eventLoop, @NotNull HandlerPriority priority, @NotNull PipelineStage<? super T, O> stage) {
+        stages.add(new StageDefinition(eventLoop, priority, stage));
+        return (PipelineBuilder<I, O>) this;
+    }
+
+    /**
+     * Adds a handler for each stage to its event loop.
+     *
+     * @return the publisher for the first stage
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    @Override
+    public PipelinePublisher<I> build() {
+        if (stages.isEmpty())
+            throw new IllegalStateException("A pipeline needs at least one stage");
+        final List<SpscRing<Object>> rings = new ArrayList<>();
+        for (int i = 0; i < stages.size(); i++)
+            rings.add(new SpscRing<>(capacity));
+        for (int i = 0; i < stages.size(); i++) {
+            final StageDefinition definition = stages.get(i);
+            final PipelinePublisher<Object> out = i + 1 < stages.size() ? rings.get(i + 1) : DISCARD;
+            definition.eventLoop.addHandler(
+                    new PipelineStageHandler(name + "-stage-" + i, rings.get(i), definition.stage, out, definition.priority));
+        }
+        return (PipelinePublisher<I>) rings.get(0);
+    }
+
+    static final class StageDefinition {
+        final EventLoop eventLoop;
+        final HandlerPriority priority;
+        final PipelineStage<?, ?> stage;
+
+        StageDefinition(EventLoop eventLoop, HandlerPriority priority, PipelineStage<?, ?> stage) {
+            this.eventLoop = eventLoop;
+            this.priority = priority;
+            this.stage = stage;
+        }
+    }
+}
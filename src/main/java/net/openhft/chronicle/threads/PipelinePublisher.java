@@ -0,0 +1,32 @@
+/*
+ * Copyright 2016-2022 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.threads;
+
+/**
+ * Publishes events to the next stage of a pipeline, see {@link PipelineBuilder}.
+ * A publisher has a single producer, so it must only be called from one thread at a time.
+ */
+@FunctionalInterface
+public interface PipelinePublisher<T> {
+    /**
+     * @param event to pass to the next stage
+     * @return false if the next stage is full, and the event was not published
+     */
+    boolean publish(T event);
+}
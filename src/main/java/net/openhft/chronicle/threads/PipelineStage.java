@@ -0,0 +1,37 @@
+/*
+ * Copyright 2016-2022 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.threads;
+
+/**
+ * A stage of a pipeline, see {@link PipelineBuilder}, which is called on its event loop for each event in turn.
+ */
+@FunctionalInterface
+public interface PipelineStage<I, O> {
+    /**
+     * Process an event, publishing any results to the next stage.
+     * <p>
+     * Returning false applies backpressure: the event is kept and passed to this stage again later, e.g. because
+     * {@code out} is full. A stage which published some of its results before returning false must remember this.
+     *
+     * @param event to process
+     * @param out   the next stage, which discards the events for the last stage
+     * @return true if the event has been processed, or false to retry it later
+     */
+    boolean onEvent(I event, PipelinePublisher<O> out);
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2016-2022 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.threads;
+
+import net.openhft.chronicle.core.threads.EventHandler;
+
+/**
+ * An {@link EventHandler} which knows when it next needs to run. A {@link MonitorEventLoop} keeps these in order of
+ * their deadlines and only calls {@link #action()} once one is due, rather than on every tick.
+ */
+public interface ScheduledMonitorHandler extends EventHandler {
+    /**
+     * Called after each call to {@link #action()}, on the event loop thread.
+     *
+     * @return the {@link System#nanoTime()} at which {@link #action()} should next be called
+     */
+    long nextActionNS();
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2016-2022 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.threads;
+
+import net.openhft.chronicle.core.threads.EventHandler;
+
+/**
+ * Implemented by an {@link EventHandler} to choose which core event loop it runs on when an {@link EventGroup} has
+ * more than one core shard, see {@link EventGroupBuilder#withCoreShards(int)}.
+ * <p>
+ * Handlers with the same key always run on the same shard, so they can share state without locking.
+ * Handlers which don't implement this interface run on the first core event loop.
+ */
+public interface ShardKey {
+    /**
+     * @return the key used to pick the shard, e.g. a hash of an instrument or session id
+     */
+    long shardKey();
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2016-2022 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.threads;
+
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.core.threads.EventHandler;
+import net.openhft.chronicle.core.threads.EventLoop;
+import net.openhft.chronicle.core.threads.HandlerPriority;
+import net.openhft.chronicle.core.threads.InvalidEventHandlerException;
+import org.jetbrains.annotations.NotNull;
+
+import static net.openhft.chronicle.core.io.Closeable.closeQuietly;
+
+/**
+ * One {@link MonitorEventLoop} shared by every {@link EventGroup} built with a shared monitor, so a process with many
+ * event groups has one monitor thread rather than one per group. It is started by the first group to acquire it and
+ * closed once the last group releases it.
+ */
+final class SharedMonitor {
+    static final boolean ENABLED = Jvm.getBoolean("eventGroup.shared.monitor");
+    // guarded by SharedMonitor.class
+    private static MonitorEventLoop monitor;
+    private static int users;
+
+    private SharedMonitor() {
+    }
+
+    static synchronized MonitorEventLoop acquire() {
+        if (monitor == null) {
+            monitor = new MonitorEventLoop(null, "shared~monitor",
+                    Pauser.millis(Integer.getInteger("monitor.interval", 10)));
+            monitor.start();
+        }
+        users++;
+        return monitor;
+    }
+
+    /**
+     * Release the monitor acquired by a group, removing the group's handlers from it straight away so a closed group
+     * isn't kept reachable until each handler next runs
+     */
+    static synchronized void release(EventGroup group, MonitorEventLoop released) {
+        if (released != monitor)
+            return;
+        released.removeHandlersIf(handler -> handler instanceof GroupHandler && ((GroupHandler) handler).group == group);
+        if (--users > 0)
+            return;
+        closeQuietly(monitor);
+        monitor = null;
+    }
+
+    /**
+     * @return the handler wrapped so it only runs while the group is started, and is removed once the group stops
+     */
+    static EventHandler forGroup(EventGroup group, EventHandler handler) {
+        return handler instanceof ScheduledMonitorHandler
+                ? new ScheduledGroupHandler(group, (ScheduledMonitorHandler) handler)
+                : new GroupHandler(group, handler);
+    }
+
+    static class GroupHandler implements EventHandler, AutoCloseable {
+        private final EventGroup group;
+        private final EventHandler handler;
+        private boolean loopStarted;
+
+        GroupHandler(EventGroup group, EventHandler handler) {
+            this.group = group;
+            this.handler = handler;
+        }
+
+        @Override
+        public void eventLoop(EventLoop eventLoop) {
+            // the handler belongs to its group, not the shared monitor
+            handler.eventLoop(group);
+        }
+
+        @Override
+        public boolean action() throws InvalidEventHandlerException {
+            if (group.isStopped() || group.isClosing())
+                throw InvalidEventHandlerException.reusable();
+            if (!group.isStarted())
+                return false;
+            if (!loopStarted) {
+                loopStarted = true;
+                handler.loopStarted();
+            }
+            return handler.action();
+        }
+
+        @Override
+        public void loopFinished() {
+            if (loopStarted)
+                handler.loopFinished();
+        }
+
+        @Override
+        public @NotNull HandlerPriority priority() {
+            return handler.priority();
+        }
+
+        @Override
+        public void close() {
+            closeQuietly(handler);
+        }
+
+        @Override
+        public String toString() {
+            return group.name() + ":" + handler;
+        }
+    }
+
+    static final class ScheduledGroupHandler extends GroupHandler implements ScheduledMonitorHandler {
+        private final ScheduledMonitorHandler handler;
+
+        ScheduledGroupHandler(EventGroup group, ScheduledMonitorHandler handler) {
+            super(group, handler);
+            this.handler = handler;
+        }
+
+        @Override
+        public long nextActionNS() {
+            return handler.nextActionNS();
+        }
+    }
+}
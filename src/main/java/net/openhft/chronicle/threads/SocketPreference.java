@@ -0,0 +1,41 @@
+/*
+ * Copyright 2016-2022 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.threads;
+
+import net.openhft.chronicle.core.threads.EventHandler;
+import net.openhft.chronicle.core.threads.HandlerPriority;
+
+/**
+ * Implemented by an {@link EventHandler} which prefers to run on a CPU on a given socket (NUMA node), e.g. because
+ * the queues and buffers it uses live there.
+ * <p>
+ * When a {@link HandlerPriority#CONCURRENT} handler is added to an {@link EventGroup}, it is placed on one of the
+ * concurrent event loops bound to a CPU on its preferred socket, if there are any. Otherwise, it is placed as usual.
+ * <p>
+ * Linux allocates memory on the node of the thread which first touches it, so a handler which allocates its buffers in
+ * {@link EventHandler#loopStarted()} keeps its thread and memory on the same socket.
+ */
+public interface SocketPreference {
+    int NO_PREFERENCE = -1;
+
+    /**
+     * @return the socket id, as reported by the affinity CpuLayout, or {@link #NO_PREFERENCE}
+     */
+    int preferredSocket();
+}
@@ -46,4 +46,12 @@ public interface ThreadHolder {
     void monitorThreadDelayed(long actionCallDelayNS);
 
     long timingToleranceNS();
+
+    /**
+     * @param nowNS the {@link System#nanoTime()} now
+     * @return the {@link System#nanoTime()} at which the thread should next be checked, by default every time the monitor polls
+     */
+    default long nextCheckNS(long nowNS) {
+        return nowNS;
+    }
 }
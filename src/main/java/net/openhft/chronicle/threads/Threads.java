@@ -21,6 +21,8 @@ import net.openhft.chronicle.core.Jvm;
 import net.openhft.chronicle.core.threads.EventHandler;
 import net.openhft.chronicle.core.threads.EventLoop;
 import net.openhft.chronicle.core.util.ObjectUtils;
+import net.openhft.chronicle.threads.internal.TrackedExecutorService;
+import net.openhft.chronicle.threads.internal.VirtualThreads;
 import org.jetbrains.annotations.NotNull;
 
 import java.lang.Thread.State;
@@ -45,7 +47,9 @@ public enum Threads {
     static ExecutorFactory executorFactory;
 
     static {
-        ExecutorFactory instance = VanillaExecutorFactory.INSTANCE;
+        ExecutorFactory instance = VirtualThreads.enabled("chronicle.threads.virtual")
+                ? VirtualThreadExecutorFactory.INSTANCE
+                : VanillaExecutorFactory.INSTANCE;
         try {
             String property = Jvm.getProperty("threads.executor.factory");
             if (property != null)
@@ -64,6 +68,10 @@ public enum Threads {
         return executorFactory.acquireScheduledExecutorService(name, daemon);
     }
 
+    public static ScheduledExecutorService acquireSharedScheduledExecutorService(String name) {
+        return executorFactory.acquireSharedScheduledExecutorService(name);
+    }
+
     public static void executorFactory(ExecutorFactory executorFactory) {
         Threads.executorFactory = executorFactory;
     }
@@ -169,6 +177,14 @@ public enum Threads {
     }
 
     static void forEachThread(ExecutorService service, Consumer<Thread> consumer) {
+        if (service instanceof TrackedExecutorService) {
+            ((TrackedExecutorService) service).forEachThread(t -> {
+                if (t.getState() != State.TERMINATED)
+                    consumer.accept(t);
+            });
+            return;
+        }
+        // executors which weren't created by TrackedExecutors are found by reflection
         try {
             if (!(service instanceof ThreadPoolExecutor))
                 service = resolveDelegatedExecutorServices(service);
@@ -0,0 +1,458 @@
+/*
+ * Copyright 2016-2022 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.threads;
+
+import net.openhft.chronicle.core.Jvm;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A {@link ScheduledExecutorService} built on a hashed timer wheel, for many short timeouts which are mostly cancelled
+ * before they fire.
+ * <p>
+ * Scheduling and cancelling are O(1), and {@link #scheduleTimeout(Runnable, long, TimeUnit)} with
+ * {@link #cancelTimeout(long)} reuse pooled timeouts so they don't allocate. Tasks run on a single thread, at most one
+ * tick late, where the tick is set by {@code -Dchronicle.timer.wheel.tick.us} and defaults to 1 ms.
+ * Tasks given to {@link #execute(Runnable)} run on the next tick.
+ * <p>
+ * On {@link #shutdown()}, tasks which are due, including those given to {@link #execute(Runnable)}, are still run
+ * while those due later are cancelled. {@link #shutdownNow()} cancels them all. The {@link #shared(String) shared}
+ * executors are not affected by shutdown, like {@link ForkJoinPool#commonPool()}.
+ */
+public class TimerWheelExecutorService extends AbstractExecutorService implements ScheduledExecutorService {
+    static final long TICK_NS = TimeUnit.MICROSECONDS.toNanos(Math.max(1, Jvm.getLong("chronicle.timer.wheel.tick.us", 1000L)));
+    static final int WHEEL_SIZE = Jvm.getInteger("chronicle.timer.wheel.size", 512);
+    // as in ScheduledThreadPoolExecutor, longer delays are capped so a deadline minus the time now doesn't overflow
+    private static final long MAX_DELAY_NS = Long.MAX_VALUE >> 1;
+    private static final Map<String, TimerWheelExecutorService> SHARED = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final long tickNS;
+    private final boolean shared;
+    private final long startNS = System.nanoTime();
+    // guarded by buckets
+    private final Timeout[] buckets;
+    private final int mask;
+    private Timeout[] timeouts = new Timeout[0];
+    private Timeout free;
+    private long processedTick;
+    private Runnable[] due = new Runnable[16];
+    private volatile boolean shutdown;
+    private final CountDownLatch terminated = new CountDownLatch(1);
+    private final Thread thread;
+
+    /**
+     * @param name      of the thread
+     * @param tickNS    the resolution of the timer wheel
+     * @param wheelSize the number of buckets, rounded up to a power of two. Timeouts further ahead than
+     *                  {@code tickNS * wheelSize} are checked each time around the wheel.
+     */
+    public TimerWheelExecutorService(String name, long tickNS, int wheelSize) {
+        this(name, tickNS, wheelSize, false);
+    }
+
+    @SuppressWarnings("this-escape")
+    private TimerWheelExecutorService(String name, long tickNS, int wheelSize, boolean shared) {
+        if (tickNS < 1)
+            throw new IllegalArgumentException("tickNS must be positive, was " + tickNS);
+        if (wheelSize < 1 || wheelSize > 1 << 30)
+            throw new IllegalArgumentException("wheelSize must be between 1 and 2^30, was " + wheelSize);
+        this.name = name;
+        this.tickNS = tickNS;
+        this.shared = shared;
+        final int size = Integer.highestOneBit(wheelSize) == wheelSize ? wheelSize : Integer.highestOneBit(wheelSize) << 1;
+        this.buckets = new Timeout[size];
+        this.mask = size - 1;
+        // a shared thread lives as long as the JVM, so it's named to be ignored by thread leak checks
+        this.thread = new NamedThreadFactory(shared ? name + "~shared" : name, true).newThread(this::run);
+        this.thread.start();
+    }
+
+    /**
+     * @param name of the executor
+     * @return the executor shared by every caller with this name, which is not affected by shutdown
+     */
+    @NotNull
+    public static TimerWheelExecutorService shared(String name) {
+        return SHARED.computeIfAbsent(name, n -> new TimerWheelExecutorService(n, TICK_NS, WHEEL_SIZE, true));
+    }
+
+    /**
+     * Run a task once after a delay, without allocating a {@link ScheduledFuture}.
+     *
+     * @param task  to run on the timer thread, which should not block
+     * @param delay before running it
+     * @param unit  of the delay
+     * @return a handle to pass to {@link #cancelTimeout(long)}
+     * @throws RejectedExecutionException if this has been shut down
+     */
+    public long scheduleTimeout(@NotNull Runnable task, long delay, @NotNull TimeUnit unit) {
+        Objects.requireNonNull(task);
+        return add(task, triggerTime(delay, unit));
+    }
+
+    /**
+     * @param handle returned by {@link #scheduleTimeout(Runnable, long, TimeUnit)}
+     * @return true if the timeout was cancelled, or false if it has already run or been cancelled
+     */
+    public boolean cancelTimeout(long handle) {
+        final int index = (int) handle;
+        final int generation = (int) (handle >>> 32);
+        synchronized (buckets) {
+            if (index < 0 || index >= timeouts.length)
+                return false;
+            final Timeout timeout = timeouts[index];
+            if (timeout.generation != generation || timeout.task == null)
+                return false;
+            unlink(timeout);
+            release(timeout);
+            return true;
+        }
+    }
+
+    private long add(Runnable task, long deadlineNS) {
+        synchronized (buckets) {
+            if (shutdown)
+                throw new RejectedExecutionException(name + " has been shut down");
+            final Timeout timeout = allocate();
+            timeout.task = task;
+            // from the delay, as the deadline itself may have wrapped around
+            final long nowNS = System.nanoTime();
+            final long untilNS = nowNS - startNS + Math.max(0, deadlineNS - nowNS);
+            // round up, and never into a tick which has been processed
+            final long ticks = untilNS / tickNS + (untilNS % tickNS == 0 ? 0 : 1);
+            timeout.deadlineTick = Math.max(ticks, processedTick + 1);
+            final int bucket = (int) (timeout.deadlineTick & mask);
+            timeout.bucket = bucket;
+            timeout.next = buckets[bucket];
+            if (timeout.next != null)
+                timeout.next.prev = timeout;
+            buckets[bucket] = timeout;
+            return ((long) timeout.generation << 32) | timeout.index;
+        }
+    }
+
+    private Timeout allocate() {
+        if (free == null) {
+            final int length = timeouts.length;
+            timeouts = Arrays.copyOf(timeouts, Math.max(64, length * 2));
+            for (int i = timeouts.length - 1; i >= length; i--) {
+                timeouts[i] = new Timeout(i);
+                timeouts[i].next = free;
+                free = timeouts[i];
+            }
+        }
+        final Timeout timeout = free;
+        free = timeout.next;
+        timeout.next = null;
+        return timeout;
+    }
+
+    private void unlink(Timeout timeout) {
+        if (timeout.prev != null)
+            timeout.prev.next = timeout.next;
+        else
+            buckets[timeout.bucket] = timeout.next;
+        if (timeout.next != null)
+            timeout.next.prev = timeout.prev;
+        timeout.prev = null;
+    }
+
+    private void release(Timeout timeout) {
+        timeout.task = null;
+        timeout.generation++;
+        timeout.next = free;
+        free = timeout;
+    }
+
+    private void run() {
+        try {
+            while (!shutdown) {
+                final long nowTick = currentTick();
+                final int count = expire(nowTick);
+                if (count < 0) {
+                    LockSupport.parkNanos(this, startNS + (nowTick + 1) * tickNS - System.nanoTime());
+                    continue;
+                }
+                runDue(count);
+            }
+            // the tasks left by shutdown() were due, so they are run before terminating
+            runDue(expireAll());
+        } finally {
+            cancelAll();
+            terminated.countDown();
+        }
+    }
+
+    private long currentTick() {
+        return (System.nanoTime() - startNS) / tickNS;
+    }
+
+    private void runDue(int count) {
+        for (int i = 0; i < count; i++) {
+            final Runnable task = due[i];
+            due[i] = null;
+            try {
+                task.run();
+            } catch (Throwable t) {
+                Jvm.warn().on(TimerWheelExecutorService.class, name + " task " + task + " threw", t);
+            }
+        }
+    }
+
+    /**
+     * @return the number of tasks in {@link #due} to run, or -1 if this tick has been processed already
+     */
+    private int expire(long nowTick) {
+        synchronized (buckets) {
+            if (nowTick <= processedTick)
+                return -1;
+            int count = 0;
+            // visit each bucket at most once when catching up
+            final long from = Math.max(processedTick + 1, nowTick - mask);
+            for (long tick = from; tick <= nowTick; tick++) {
+                for (Timeout timeout = buckets[(int) (tick & mask)], next; timeout != null; timeout = next) {
+                    next = timeout.next;
+                    if (timeout.deadlineTick > nowTick)
+                        continue;
+                    if (count == due.length)
+                        due = Arrays.copyOf(due, count * 2);
+                    due[count++] = timeout.task;
+                    unlink(timeout);
+                    release(timeout);
+                }
+            }
+            processedTick = nowTick;
+            return count;
+        }
+    }
+
+    /**
+     * @return the number of tasks left, now in {@link #due} to run
+     */
+    private int expireAll() {
+        synchronized (buckets) {
+            int count = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                for (Timeout timeout = buckets[i], next; timeout != null; timeout = next) {
+                    next = timeout.next;
+                    if (count == due.length)
+                        due = Arrays.copyOf(due, count * 2);
+                    due[count++] = timeout.task;
+                    unlink(timeout);
+                    release(timeout);
+                }
+            }
+            return count;
+        }
+    }
+
+    private List<Runnable> cancelAll() {
+        return cancelAfter(Long.MIN_VALUE);
+    }
+
+    /**
+     * Shut down, and cancel the tasks due after this tick
+     */
+    private List<Runnable> cancelAfter(long tick) {
+        final List<Runnable> notRun = new ArrayList<>();
+        synchronized (buckets) {
+            shutdown = true;
+            for (int i = 0; i < buckets.length; i++) {
+                for (Timeout timeout = buckets[i], next; timeout != null; timeout = next) {
+                    next = timeout.next;
+                    if (timeout.deadlineTick <= tick)
+                        continue;
+                    notRun.add(timeout.task);
+                    unlink(timeout);
+                    release(timeout);
+                }
+            }
+        }
+        for (Runnable task : notRun) {
+            if (task instanceof Future)
+                ((Future<?>) task).cancel(false);
+        }
+        return notRun;
+    }
+
+    @Override
+    public void execute(@NotNull Runnable command) {
+        scheduleTimeout(command, 0, TimeUnit.NANOSECONDS);
+    }
+
+    @NotNull
+    @Override
+    public ScheduledFuture<?> schedule(@NotNull Runnable command, long delay, @NotNull TimeUnit unit) {
+        return schedule(new TimerTask<Void>(Executors.callable(command, null), triggerTime(delay, unit), 0));
+    }
+
+    @NotNull
+    @Override
+    public <V> ScheduledFuture<V> schedule(@NotNull Callable<V> callable, long delay, @NotNull TimeUnit unit) {
+        return schedule(new TimerTask<>(callable, triggerTime(delay, unit), 0));
+    }
+
+    @NotNull
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(@NotNull Runnable command, long initialDelay, long period, @NotNull TimeUnit unit) {
+        if (period <= 0)
+            throw new IllegalArgumentException("period must be positive, was " + period);
+        return schedule(new TimerTask<Void>(Executors.callable(command, null), triggerTime(initialDelay, unit), Math.min(unit.toNanos(period), MAX_DELAY_NS)));
+    }
+
+    @NotNull
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(@NotNull Runnable command, long initialDelay, long delay, @NotNull TimeUnit unit) {
+        if (delay <= 0)
+            throw new IllegalArgumentException("delay must be positive, was " + delay);
+        return schedule(new TimerTask<Void>(Executors.callable(command, null), triggerTime(initialDelay, unit), -Math.min(unit.toNanos(delay), MAX_DELAY_NS)));
+    }
+
+    private static long triggerTime(long delay, TimeUnit unit) {
+        return triggerTime(unit.toNanos(delay));
+    }
+
+    private static long triggerTime(long delayNS) {
+        return System.nanoTime() + Math.min(Math.max(0, delayNS), MAX_DELAY_NS);
+    }
+
+    private <V> TimerTask<V> schedule(TimerTask<V> task) {
+        task.handle = add(task, task.time);
+        return task;
+    }
+
+    @Override
+    public void shutdown() {
+        if (shared)
+            return;
+        // those given to execute() are due on the next tick
+        cancelAfter(currentTick() + 1);
+        LockSupport.unpark(thread);
+    }
+
+    @NotNull
+    @Override
+    public List<Runnable> shutdownNow() {
+        if (shared)
+            return new ArrayList<>();
+        final List<Runnable> notRun = cancelAll();
+        LockSupport.unpark(thread);
+        return notRun;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return terminated.getCount() == 0;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, @NotNull TimeUnit unit) throws InterruptedException {
+        return terminated.await(timeout, unit);
+    }
+
+    @Override
+    public String toString() {
+        return "TimerWheelExecutorService{" +
+                "name='" + name + '\'' +
+                ", tickNS=" + tickNS +
+                ", shutdown=" + shutdown +
+                '}';
+    }
+
+    /**
+     * A pooled entry in a bucket of the wheel, which is reused once its task has run or been cancelled.
+     */
+    private static final class Timeout {
+        final int index;
+        int generation;
+        long deadlineTick;
+        int bucket;
+        Runnable task;
+        Timeout next, prev;
+
+        Timeout(int index) {
+            this.index = index;
+        }
+    }
+
+    private final class TimerTask<V> extends FutureTask<V> implements RunnableScheduledFuture<V> {
+        // positive for a fixed rate, negative for a fixed delay and zero for a one off task
+        private final long period;
+        volatile long time;
+        volatile long handle;
+
+        TimerTask(Callable<V> callable, long time, long period) {
+            super(callable);
+            this.time = time;
+            this.period = period;
+        }
+
+        @Override
+        public boolean isPeriodic() {
+            return period != 0;
+        }
+
+        @Override
+        public void run() {
+            if (!isPeriodic()) {
+                super.run();
+            } else if (runAndReset()) {
+                time = period > 0 ? time + period : triggerTime(-period);
+                try {
+                    handle = add(this, time);
+                } catch (RejectedExecutionException e) {
+                    super.cancel(false);
+                }
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            final boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled)
+                cancelTimeout(handle);
+            return cancelled;
+        }
+
+        @Override
+        public long getDelay(@NotNull TimeUnit unit) {
+            return unit.convert(time - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(@NotNull Delayed other) {
+            if (other == this)
+                return 0;
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+}
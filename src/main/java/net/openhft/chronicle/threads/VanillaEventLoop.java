@@ -24,6 +24,8 @@ import net.openhft.chronicle.core.threads.EventHandler;
 import net.openhft.chronicle.core.threads.EventLoop;
 import net.openhft.chronicle.core.threads.HandlerPriority;
 import net.openhft.chronicle.core.threads.InvalidEventHandlerException;
+import net.openhft.chronicle.threads.internal.HandlerActionEvent;
+import net.openhft.chronicle.threads.internal.JfrSupport;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -33,6 +35,7 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static net.openhft.chronicle.threads.Threads.eventLoopQuietly;
+import static net.openhft.chronicle.threads.Threads.loopFinishedQuietly;
 import static net.openhft.chronicle.threads.Threads.loopStartedCall;
 
 public class VanillaEventLoop extends MediumEventLoop {
@@ -94,15 +97,12 @@ public class VanillaEventLoop extends MediumEventLoop {
     }
 
     @Override
-    public void addHandler(@NotNull final EventHandler handler) {
-        throwExceptionIfClosed();
-
+    protected void checkPriority(@NotNull final EventHandler handler) {
         final HandlerPriority priority = handler.priority();
         if (DEBUG_ADDING_HANDLERS)
             Jvm.startup().on(getClass(), "Adding " + priority + " " + handler + " to " + this.name);
         if (!priorities.contains(priority))
             throw new IllegalStateException(name() + ": Unexpected priority " + priority + " for " + handler + " allows " + priorities);
-        addHandlerInternal(handler);
     }
 
     @Override
@@ -112,6 +112,13 @@ public class VanillaEventLoop extends MediumEventLoop {
         loopStartedForHandlerList(daemonHandlers);
     }
 
+    @Override
+    protected void warmUpHandlers(@NotNull List<WarmUpHandler> warmUpHandlers) {
+        super.warmUpHandlers(warmUpHandlers);
+        addWarmUpHandlers(timerHandlers, warmUpHandlers);
+        addWarmUpHandlers(daemonHandlers, warmUpHandlers);
+    }
+
     @Override
     protected void loopFinishedAllHandlers() {
         super.loopFinishedAllHandlers();
@@ -141,7 +148,10 @@ public class VanillaEventLoop extends MediumEventLoop {
             EventHandler handler = null;
             try {
                 handler = handlers.get(i);
-                handler.action();
+                if (JfrSupport.ENABLED)
+                    HandlerActionEvent.action(name, handler);
+                else
+                    handler.action();
             } catch (InvalidEventHandlerException e) {
                 removeHandler(handler, handlers);
             } catch (Throwable e) {
@@ -210,6 +220,36 @@ public class VanillaEventLoop extends MediumEventLoop {
         }
     }
 
+    @Override
+    protected boolean isMediumHandler(@NotNull HandlerPriority priority) {
+        return priority == HandlerPriority.MEDIUM;
+    }
+
+    @Override
+    protected void mediumHandlersChanged() {
+        mediumHandlers.sort(Comparator.comparing(EventHandler::priority).reversed());
+        updateMediumHandlersArray();
+    }
+
+    @Override
+    protected void removeHandlersInternal(@NotNull Collection<EventHandler> handlers) {
+        super.removeHandlersInternal(handlers);
+        removeFromList(handlers, timerHandlers);
+        removeFromList(handlers, daemonHandlers);
+    }
+
+    private void removeFromList(@NotNull Collection<EventHandler> handlers, @NotNull List<EventHandler> list) {
+        final boolean started = thread != null;
+        for (EventHandler handler : handlers) {
+            if (list.contains(handler)) {
+                if (started)
+                    loopFinishedQuietly(handler);
+                Closeable.closeQuietly(handler);
+            }
+        }
+        list.removeAll(handlers);
+    }
+
     @Override
     public int handlerCount() {
         return nonDaemonHandlerCount() + daemonHandlers.size() + timerHandlers.size();
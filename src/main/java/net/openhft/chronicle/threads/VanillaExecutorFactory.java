@@ -17,8 +17,9 @@
  */
 package net.openhft.chronicle.threads;
 
+import net.openhft.chronicle.threads.internal.TrackedExecutors;
+
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 
 public enum VanillaExecutorFactory implements ExecutorFactory {
@@ -28,13 +29,13 @@ public enum VanillaExecutorFactory implements ExecutorFactory {
     public ExecutorService acquireExecutorService(String name, int threads, boolean daemon) {
         NamedThreadFactory threadFactory = new NamedThreadFactory(name, daemon);
         return threads == 1
-                ? Executors.newSingleThreadExecutor(threadFactory)
-                : Executors.newFixedThreadPool(threads, threadFactory);
+                ? TrackedExecutors.newSingleThreadExecutor(threadFactory)
+                : TrackedExecutors.newFixedThreadPool(threads, threadFactory);
     }
 
     @Override
     public ScheduledExecutorService acquireScheduledExecutorService(String name, boolean daemon) {
-        return Executors.newSingleThreadScheduledExecutor(
+        return TrackedExecutors.newSingleThreadScheduledExecutor(
                 new NamedThreadFactory(name, daemon));
     }
 }
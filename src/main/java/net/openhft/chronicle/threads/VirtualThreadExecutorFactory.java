@@ -0,0 +1,54 @@
+/*
+ * Copyright 2016-2022 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.threads;
+
+import net.openhft.chronicle.threads.internal.TrackedExecutors;
+import net.openhft.chronicle.threads.internal.VirtualThreads;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * An {@link ExecutorFactory} whose executors run their tasks on virtual threads on Java 21+, falling back to
+ * {@link VanillaExecutorFactory} on older JVMs. The number of threads asked for still bounds how many tasks run at once.
+ * <p>
+ * Enable it with {@code -Dchronicle.threads.virtual=true} or {@link Threads#executorFactory(ExecutorFactory)}.
+ * Virtual threads are always daemon threads.
+ */
+public enum VirtualThreadExecutorFactory implements ExecutorFactory {
+    INSTANCE;
+
+    @Override
+    public ExecutorService acquireExecutorService(String name, int threads, boolean daemon) {
+        if (!VirtualThreads.AVAILABLE)
+            return VanillaExecutorFactory.INSTANCE.acquireExecutorService(name, threads, daemon);
+        final ThreadFactory threadFactory = VirtualThreads.factory(Threads.threadGroupPrefix() + name);
+        return threads == 1
+                ? TrackedExecutors.newSingleThreadExecutor(threadFactory)
+                : TrackedExecutors.newFixedThreadPool(threads, threadFactory);
+    }
+
+    @Override
+    public ScheduledExecutorService acquireScheduledExecutorService(String name, boolean daemon) {
+        if (!VirtualThreads.AVAILABLE)
+            return VanillaExecutorFactory.INSTANCE.acquireScheduledExecutorService(name, daemon);
+        return TrackedExecutors.newSingleThreadScheduledExecutor(VirtualThreads.factory(Threads.threadGroupPrefix() + name));
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2016-2022 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.threads;
+
+/**
+ * Implemented by an {@link net.openhft.chronicle.core.threads.EventHandler} to be warmed up before its event loop goes live,
+ * so its hot paths are compiled before the first real event. See {@link MediumEventLoop#warmUpIterations(int)}
+ */
+@FunctionalInterface
+public interface WarmUpHandler {
+    /**
+     * Called many times on the event loop thread, after {@code loopStarted()} and before the first call to
+     * {@code action()}. It should run the same code as {@code action()} does on a typical event, e.g. on a dummy message,
+     * without any effect outside the handler.
+     */
+    void warmUp();
+}
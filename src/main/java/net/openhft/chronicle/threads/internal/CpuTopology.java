@@ -0,0 +1,212 @@
+/*
+ * Copyright 2016-2022 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.threads.internal;
+
+import net.openhft.affinity.AffinityLock;
+import net.openhft.affinity.CpuLayout;
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.core.OS;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * The CPU topology of this machine: sockets, cores and hyperthread siblings from the {@link CpuLayout}, and the CPUs
+ * isolated from the scheduler as listed in {@code /sys/devices/system/cpu/isolated}
+ * <p>
+ * Used to plan the binding of event loops, see {@code EventGroupBuilder.bindingAutomatic()}
+ */
+public final class CpuTopology {
+    private static final Path ISOLATED_CPUS = Paths.get(Jvm.getProperty("cpu.isolated.file", "/sys/devices/system/cpu/isolated"));
+    // CPUs handed out to event loops by this JVM, so separate event groups don't share a core, until they are released
+    private static final BitSet CLAIMED = new BitSet();
+
+    private final CpuLayout layout;
+    private final BitSet isolated;
+
+    public CpuTopology(CpuLayout layout, BitSet isolated) {
+        this.layout = layout;
+        this.isolated = (BitSet) isolated.clone();
+    }
+
+    public static CpuTopology current() {
+        return new CpuTopology(AffinityLock.cpuLayout(), readIsolated());
+    }
+
+    static BitSet readIsolated() {
+        if (!OS.isLinux() || !Files.isReadable(ISOLATED_CPUS))
+            return new BitSet();
+        try {
+            return parseCpuList(new String(Files.readAllBytes(ISOLATED_CPUS), StandardCharsets.ISO_8859_1));
+        } catch (IOException | IllegalArgumentException e) {
+            Jvm.warn().on(CpuTopology.class, "Unable to read the isolated CPUs from " + ISOLATED_CPUS, e);
+            return new BitSet();
+        }
+    }
+
+    /**
+     * Parse a kernel CPU list, e.g. {@code 2-5,8,10-11}
+     *
+     * @param cpuList to parse
+     * @return the CPUs listed
+     */
+    public static BitSet parseCpuList(String cpuList) {
+        final BitSet cpus = new BitSet();
+        for (String range : cpuList.trim().split(",")) {
+            range = range.trim();
+            if (range.isEmpty())
+                continue;
+            final int dash = range.indexOf('-');
+            try {
+                if (dash < 0) {
+                    cpus.set(Integer.parseInt(range));
+                } else {
+                    cpus.set(Integer.parseInt(range.substring(0, dash).trim()),
+                            Integer.parseInt(range.substring(dash + 1).trim()) + 1);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid CPU list " + cpuList, e);
+            }
+        }
+        return cpus;
+    }
+
+    public BitSet isolated() {
+        return (BitSet) isolated.clone();
+    }
+
+    /**
+     * @return one CPU from each physical core where all the hyperthread siblings are isolated, in CPU order
+     */
+    public List<Integer> isolatedPhysicalCores() {
+        final Map<Long, BitSet> cores = new TreeMap<>();
+        for (int cpu = 0; cpu < layout.cpus(); cpu++) {
+            final long core = ((long) layout.socketId(cpu) << 32) | layout.coreId(cpu);
+            cores.computeIfAbsent(core, k -> new BitSet()).set(cpu);
+        }
+        final List<Integer> result = new ArrayList<>();
+        for (BitSet siblings : cores.values()) {
+            final BitSet notIsolated = (BitSet) siblings.clone();
+            notIsolated.andNot(isolated);
+            if (notIsolated.isEmpty())
+                result.add(siblings.nextSetBit(0));
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    public int socketId(int cpu) {
+        return layout.socketId(cpu);
+    }
+
+    /**
+     * Claim up to {@code count} isolated physical cores which have not already been claimed in this JVM
+     *
+     * @param count the most to claim
+     * @return the claim on the CPUs, one per physical core, to release once they are no longer used
+     */
+    public Claim claimIsolatedPhysicalCores(int count) {
+        return claimIsolatedPhysicalCores(count, false);
+    }
+
+    /**
+     * Claim up to {@code count} isolated physical cores which have not already been claimed in this JVM
+     *
+     * @param count               the most to claim
+     * @param spreadAcrossSockets take a core from each socket in turn, rather than the lowest numbered cores first
+     * @return the claim on the CPUs, one per physical core, to release once they are no longer used
+     */
+    public Claim claimIsolatedPhysicalCores(int count, boolean spreadAcrossSockets) {
+        final List<Integer> claimed = new ArrayList<>();
+        synchronized (CLAIMED) {
+            final List<Integer> cores = isolatedPhysicalCores();
+            cores.removeIf(CLAIMED::get);
+            for (int cpu : spreadAcrossSockets ? interleaveBySocket(cores) : cores) {
+                if (claimed.size() >= count)
+                    break;
+                CLAIMED.set(cpu);
+                claimed.add(cpu);
+            }
+        }
+        return new Claim(claimed);
+    }
+
+    List<Integer> interleaveBySocket(List<Integer> cpus) {
+        final Map<Integer, Deque<Integer>> bySocket = new TreeMap<>();
+        for (int cpu : cpus)
+            bySocket.computeIfAbsent(layout.socketId(cpu), k -> new ArrayDeque<>()).add(cpu);
+        final List<Integer> result = new ArrayList<>();
+        while (result.size() < cpus.size()) {
+            for (Deque<Integer> socketCpus : bySocket.values()) {
+                if (!socketCpus.isEmpty())
+                    result.add(socketCpus.poll());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * CPUs claimed by {@link #claimIsolatedPhysicalCores(int, boolean)}, which can be claimed again once closed
+     */
+    public static final class Claim implements AutoCloseable {
+        private final List<Integer> cpus;
+        private boolean closed = false;
+
+        Claim(List<Integer> cpus) {
+            this.cpus = Collections.unmodifiableList(cpus);
+        }
+
+        public List<Integer> cpus() {
+            return cpus;
+        }
+
+        @Override
+        public void close() {
+            synchronized (CLAIMED) {
+                if (closed)
+                    return;
+                closed = true;
+                for (int cpu : cpus)
+                    CLAIMED.clear(cpu);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "Claim{" +
+                    "cpus=" + cpus +
+                    ", closed=" + closed +
+                    '}';
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CpuTopology{" +
+                "sockets=" + layout.sockets() +
+                ", coresPerSocket=" + layout.coresPerSocket() +
+                ", threadsPerCore=" + layout.threadsPerCore() +
+                ", isolated=" + isolated +
+                '}';
+    }
+}
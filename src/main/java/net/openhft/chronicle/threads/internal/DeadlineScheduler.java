@@ -0,0 +1,149 @@
+/*
+ * Copyright 2016-2022 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.threads.internal;
+
+import net.openhft.chronicle.core.threads.EventHandler;
+import net.openhft.chronicle.threads.DeadlineEventHandler;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The earliest deadline first order of a snapshot of the handlers of an event loop. The deadline of a
+ * {@link DeadlineEventHandler} is the last time it was called plus its {@link DeadlineEventHandler#maxServiceIntervalNS()},
+ * other handlers have no deadline and keep their order after those which do.
+ * <p>
+ * A new instance is created each time the handlers change, carrying over the state of the handlers which remain.
+ * It is used only by the event loop thread, apart from {@link #misses(EventHandler)} which is best-effort.
+ */
+public final class DeadlineScheduler {
+    private static final long NEVER = Long.MIN_VALUE;
+
+    private final EventHandler[] handlers;
+    private final long[] intervalNS;
+    private final long[] lastActionNS;
+    private final long[] misses;
+    private final long[] deadlineNS;
+    private final int[] order;
+
+    private DeadlineScheduler(@NotNull EventHandler[] handlers, @Nullable DeadlineScheduler previous) {
+        final int length = handlers.length;
+        this.handlers = handlers;
+        this.intervalNS = new long[length];
+        this.lastActionNS = new long[length];
+        this.misses = new long[length];
+        this.deadlineNS = new long[length];
+        this.order = new int[length];
+        for (int i = 0; i < length; i++) {
+            order[i] = i;
+            final EventHandler handler = handlers[i];
+            intervalNS[i] = handler instanceof DeadlineEventHandler
+                    ? Math.max(0, ((DeadlineEventHandler) handler).maxServiceIntervalNS())
+                    : Long.MAX_VALUE;
+            final int j = previous == null ? -1 : previous.indexOf(handler);
+            lastActionNS[i] = j < 0 ? NEVER : previous.lastActionNS[j];
+            misses[i] = j < 0 ? 0 : previous.misses[j];
+        }
+    }
+
+    /**
+     * @return a scheduler for these handlers or null if none of them have a deadline
+     */
+    @Nullable
+    public static DeadlineScheduler create(@NotNull EventHandler[] handlers, @Nullable DeadlineScheduler previous) {
+        for (EventHandler handler : handlers)
+            if (handler instanceof DeadlineEventHandler)
+                return new DeadlineScheduler(handlers, previous);
+        return null;
+    }
+
+    @NotNull
+    public EventHandler[] handlers() {
+        return handlers;
+    }
+
+    /**
+     * Sort the handlers by their deadlines. As the order changes little between iterations, an insertion sort of the
+     * previous order is used, which doesn't allocate and keeps handlers with the same deadline in the same order.
+     *
+     * @return the indices of the handlers in the order they should be called, only valid until the next call
+     */
+    @NotNull
+    public int[] order() {
+        final int length = handlers.length;
+        for (int i = 0; i < length; i++) {
+            final long last = lastActionNS[i];
+            final long interval = intervalNS[i];
+            deadlineNS[i] = interval == Long.MAX_VALUE ? Long.MAX_VALUE
+                    : last == NEVER ? NEVER
+                    : last + interval;
+        }
+        for (int i = 1; i < length; i++) {
+            final int index = order[i];
+            final long deadline = deadlineNS[index];
+            int j = i - 1;
+            while (j >= 0 && deadlineNS[order[j]] > deadline) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = index;
+        }
+        return order;
+    }
+
+    /**
+     * @return whether the handler at this index has a deadline, otherwise there is no need to call {@link #actionAt(int, long)}
+     */
+    public boolean hasDeadline(int index) {
+        return intervalNS[index] != Long.MAX_VALUE;
+    }
+
+    /**
+     * Record a call to the handler at this index, counting a miss if it was called after its deadline
+     */
+    public void actionAt(int index, long nowNS) {
+        final long last = lastActionNS[index];
+        if (last != NEVER && nowNS - last > intervalNS[index])
+            misses[index]++;
+        lastActionNS[index] = nowNS;
+    }
+
+    /**
+     * Called when the event loop resumes after pausing. A loop only pauses when none of its handlers were busy, so the
+     * time spent paused is not counted towards a miss, and the deadlines restart from now.
+     */
+    public void resumed(long nowNS) {
+        for (int i = 0; i < lastActionNS.length; i++)
+            if (lastActionNS[i] != NEVER)
+                lastActionNS[i] = nowNS;
+    }
+
+    /**
+     * @return the number of times the handler was called after its deadline, or -1 if it isn't one of these handlers
+     */
+    public long misses(EventHandler handler) {
+        final int index = indexOf(handler);
+        return index < 0 ? -1 : misses[index];
+    }
+
+    private int indexOf(EventHandler handler) {
+        for (int i = 0; i < handlers.length; i++)
+            if (handlers[i] == handler)
+                return i;
+        return -1;
+    }
+}
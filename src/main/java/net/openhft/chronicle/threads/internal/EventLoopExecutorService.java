@@ -0,0 +1,337 @@
+/*
+ * Copyright 2016-2022 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.threads.internal;
+
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.core.threads.EventHandler;
+import net.openhft.chronicle.core.threads.EventLoop;
+import net.openhft.chronicle.core.threads.HandlerPriority;
+import net.openhft.chronicle.core.threads.InvalidEventHandlerException;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An {@link ExecutorService} which runs its tasks from handlers on an existing {@link EventLoop}, rather than on
+ * threads of its own.
+ * <p>
+ * Each handler runs at most one task per call to {@code action()}, so tasks share the loop fairly with other handlers.
+ * Scheduled tasks run when a handler next finds them due, so their timing is only as precise as the loop's pauser.
+ * On shutdown, queued tasks are still run but scheduled tasks are cancelled. If the event loop has stopped, or
+ * hasn't started and there are no queued tasks, it terminates at once as there is nothing left to run.
+ */
+public class EventLoopExecutorService extends AbstractExecutorService implements ScheduledExecutorService {
+    private final String name;
+    private final EventLoop eventLoop;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    // guarded by itself
+    private final PriorityQueue<ScheduledTask<?>> scheduled = new PriorityQueue<>();
+    // the head of scheduled, so handlers can check whether a task is due without taking the lock
+    private volatile ScheduledTask<?> nextScheduled;
+    private final AtomicLong sequence = new AtomicLong();
+    private final List<TaskHandler> handlers = new ArrayList<>();
+    private final CountDownLatch terminated;
+    private volatile boolean shutdown;
+
+    /**
+     * @param name      for logging
+     * @param eventLoop to add the handlers to
+     * @param priority  of the handlers, which the event loop must support
+     * @param handlers  the number of handlers, i.e. the tasks which can run at once
+     */
+    public EventLoopExecutorService(String name, @NotNull EventLoop eventLoop, @NotNull HandlerPriority priority, int handlers) {
+        if (handlers < 1)
+            throw new IllegalArgumentException("handlers must be at least 1, was " + handlers);
+        this.name = name;
+        this.eventLoop = eventLoop;
+        this.terminated = new CountDownLatch(handlers);
+        for (int i = 0; i < handlers; i++)
+            this.handlers.add(new TaskHandler(priority));
+        this.handlers.forEach(eventLoop::addHandler);
+    }
+
+    @Override
+    public void execute(@NotNull Runnable command) {
+        Objects.requireNonNull(command);
+        if (shutdown)
+            throw new RejectedExecutionException(name + " has been shut down");
+        tasks.add(command);
+        wakeOne();
+    }
+
+    private void wakeOne() {
+        for (TaskHandler handler : handlers) {
+            if (handler.waiting) {
+                handler.waiting = false;
+                // wakes the loop's pauser, e.g. a MilliPauser, as well as a parked thread
+                eventLoop.unpause();
+                return;
+            }
+        }
+    }
+
+    @NotNull
+    @Override
+    public ScheduledFuture<?> schedule(@NotNull Runnable command, long delay, @NotNull TimeUnit unit) {
+        return schedule(new ScheduledTask<Void>(command, null, triggerTime(delay, unit), 0));
+    }
+
+    @NotNull
+    @Override
+    public <V> ScheduledFuture<V> schedule(@NotNull Callable<V> callable, long delay, @NotNull TimeUnit unit) {
+        return schedule(new ScheduledTask<>(callable, triggerTime(delay, unit)));
+    }
+
+    @NotNull
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(@NotNull Runnable command, long initialDelay, long period, @NotNull TimeUnit unit) {
+        if (period <= 0)
+            throw new IllegalArgumentException("period must be positive, was " + period);
+        return schedule(new ScheduledTask<Void>(command, null, triggerTime(initialDelay, unit), unit.toNanos(period)));
+    }
+
+    @NotNull
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(@NotNull Runnable command, long initialDelay, long delay, @NotNull TimeUnit unit) {
+        if (delay <= 0)
+            throw new IllegalArgumentException("delay must be positive, was " + delay);
+        return schedule(new ScheduledTask<Void>(command, null, triggerTime(initialDelay, unit), -unit.toNanos(delay)));
+    }
+
+    private static long triggerTime(long delay, TimeUnit unit) {
+        return System.nanoTime() + unit.toNanos(Math.max(0, delay));
+    }
+
+    private <V> ScheduledTask<V> schedule(ScheduledTask<V> task) {
+        if (shutdown)
+            throw new RejectedExecutionException(name + " has been shut down");
+        synchronized (scheduled) {
+            scheduled.add(task);
+            nextScheduled = scheduled.peek();
+        }
+        return task;
+    }
+
+    private void reschedule(ScheduledTask<?> task) {
+        synchronized (scheduled) {
+            if (!shutdown) {
+                scheduled.add(task);
+                nextScheduled = scheduled.peek();
+                return;
+            }
+        }
+        task.cancel(false);
+    }
+
+    /**
+     * @return a scheduled task which is due, removing it, or null if there are none
+     */
+    private ScheduledTask<?> pollDueTask() {
+        final ScheduledTask<?> next = nextScheduled;
+        if (next == null || next.time - System.nanoTime() > 0)
+            return null;
+        synchronized (scheduled) {
+            final ScheduledTask<?> head = scheduled.peek();
+            if (head == null || head.time - System.nanoTime() > 0)
+                return null;
+            final ScheduledTask<?> due = scheduled.poll();
+            nextScheduled = scheduled.peek();
+            return due;
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        cancelScheduled();
+        terminateUnlessRunning();
+    }
+
+    @NotNull
+    @Override
+    public List<Runnable> shutdownNow() {
+        cancelScheduled();
+        final List<Runnable> notRun = new ArrayList<>();
+        for (Runnable task; (task = tasks.poll()) != null; )
+            notRun.add(task);
+        terminateUnlessRunning();
+        return notRun;
+    }
+
+    private void cancelScheduled() {
+        final List<ScheduledTask<?>> cancelled;
+        synchronized (scheduled) {
+            shutdown = true;
+            cancelled = new ArrayList<>(scheduled);
+            scheduled.clear();
+            nextScheduled = null;
+        }
+        cancelled.forEach(task -> task.cancel(false));
+    }
+
+    private void terminateUnlessRunning() {
+        // the handlers won't be called to finish if the loop has stopped, and needn't be if it hasn't started and has nothing to run
+        if (eventLoop.isStopped() || (!eventLoop.isAlive() && tasks.isEmpty()))
+            handlers.forEach(TaskHandler::finish);
+        else
+            eventLoop.unpause();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return terminated.getCount() == 0;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, @NotNull TimeUnit unit) throws InterruptedException {
+        return terminated.await(timeout, unit);
+    }
+
+    @Override
+    public String toString() {
+        return "EventLoopExecutorService{" +
+                "name='" + name + '\'' +
+                ", handlers=" + handlers.size() +
+                ", shutdown=" + shutdown +
+                '}';
+    }
+
+    private final class TaskHandler implements EventHandler {
+        private final HandlerPriority priority;
+        private final AtomicBoolean finished = new AtomicBoolean();
+        volatile boolean waiting;
+
+        TaskHandler(HandlerPriority priority) {
+            this.priority = priority;
+        }
+
+        @Override
+        public boolean action() throws InvalidEventHandlerException {
+            final ScheduledTask<?> due = pollDueTask();
+            if (due != null) {
+                due.run();
+                if (due.isPeriodic() && !due.isDone())
+                    reschedule(due);
+                return true;
+            }
+            final Runnable task = tasks.poll();
+            if (task != null) {
+                if (waiting)
+                    waiting = false;
+                try {
+                    task.run();
+                } catch (Throwable t) {
+                    Jvm.warn().on(EventLoopExecutorService.class, name + " task " + task + " threw", t);
+                }
+                return true;
+            }
+            if (shutdown)
+                throw InvalidEventHandlerException.reusable();
+            waiting = true;
+            if (tasks.isEmpty())
+                return false;
+            // a task added before execute() could see waiting, which may not have woken this loop
+            waiting = false;
+            return true;
+        }
+
+        @Override
+        public void loopFinished() {
+            finish();
+        }
+
+        void finish() {
+            if (finished.compareAndSet(false, true))
+                terminated.countDown();
+        }
+
+        @Override
+        public @NotNull HandlerPriority priority() {
+            return priority;
+        }
+
+        @Override
+        public String toString() {
+            return "TaskHandler{" + name + '}';
+        }
+    }
+
+    private final class ScheduledTask<V> extends FutureTask<V> implements RunnableScheduledFuture<V> {
+        private final long sequenceNumber = sequence.getAndIncrement();
+        // positive for a fixed rate, negative for a fixed delay and zero for a one off task
+        private final long period;
+        volatile long time;
+
+        ScheduledTask(Runnable runnable, V result, long time, long period) {
+            super(runnable, result);
+            this.time = time;
+            this.period = period;
+        }
+
+        ScheduledTask(Callable<V> callable, long time) {
+            super(callable);
+            this.time = time;
+            this.period = 0;
+        }
+
+        @Override
+        public boolean isPeriodic() {
+            return period != 0;
+        }
+
+        @Override
+        public void run() {
+            if (!isPeriodic()) {
+                super.run();
+            } else if (runAndReset()) {
+                time = period > 0 ? time + period : System.nanoTime() - period;
+            }
+        }
+
+        @Override
+        public long getDelay(@NotNull TimeUnit unit) {
+            return unit.convert(time - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(@NotNull Delayed other) {
+            if (other == this)
+                return 0;
+            if (other instanceof ScheduledTask) {
+                final ScheduledTask<?> task = (ScheduledTask<?>) other;
+                final long diff = time - task.time;
+                if (diff != 0)
+                    return diff < 0 ? -1 : 1;
+                return Long.compare(sequenceNumber, task.sequenceNumber);
+            }
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2016-2022 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.threads.internal;
+
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.core.threads.EventHandler;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A fixed size, allocation free, ring buffer of the recent history of an event loop. Each entry records the handler
+ * called, when it started and finished and whether it was busy, or when the loop paused.
+ * <p>
+ * It is written only by the event loop thread and read, on a best-effort basis, by the thread reporting a stall so
+ * the report can show what the loop was doing just before it stalled.
+ * <p>
+ * Disabled unless the system property {@code eventloop.history.size} is set to the number of entries to keep.
+ */
+public final class EventLoopHistory {
+    public static final int SIZE = Jvm.getInteger("eventloop.history.size", 0);
+    public static final boolean ENABLED = SIZE > 0;
+    public static final int HIGH = -1;
+    static final long WINDOW_NS = TimeUnit.MILLISECONDS.toNanos(Jvm.getInteger("eventloop.history.window.ms", 100));
+    private static final int PAUSE = -2;
+    private static final int FIELDS = 3;
+
+    private final int mask;
+    private final long[] entries;
+    private final AtomicLong count = new AtomicLong();
+
+    public EventLoopHistory() {
+        this(SIZE);
+    }
+
+    public EventLoopHistory(int capacity) {
+        final int size = 1 << (32 - Integer.numberOfLeadingZeros(Math.max(1, capacity) - 1));
+        this.mask = size - 1;
+        this.entries = new long[size * FIELDS];
+    }
+
+    /**
+     * Record a call to a handler
+     *
+     * @param index   of the handler in the medium handlers array, or {@link #HIGH} for the high handler
+     * @param startNS {@link System#nanoTime()} the call started
+     * @param endNS   {@link System#nanoTime()} the call returned
+     * @param busy    the value returned by the handler
+     */
+    public void handler(int index, long startNS, long endNS, boolean busy) {
+        record(((long) index << 1) | (busy ? 1 : 0), startNS, endNS);
+    }
+
+    /**
+     * Record the loop pausing
+     *
+     * @param startNS {@link System#nanoTime()} the pause started
+     * @param endNS   {@link System#nanoTime()} the pause ended
+     */
+    public void pause(long startNS, long endNS) {
+        record((long) PAUSE << 1, startNS, endNS);
+    }
+
+    private void record(long what, long startNS, long endNS) {
+        final long n = count.get();
+        final int offset = (int) (n & mask) * FIELDS;
+        entries[offset] = what;
+        entries[offset + 1] = startNS;
+        entries[offset + 2] = endNS;
+        count.lazySet(n + 1);
+    }
+
+    /**
+     * Render the entries which started in the {@code eventloop.history.window.ms} before the most recent entry
+     * finished, oldest first. The call in progress when a loop stalls has not been recorded yet, so this shows
+     * what lead up to the stall.
+     *
+     * @param out         to append to
+     * @param handlers    the medium handlers array, used to name handlers
+     * @param highHandler the high handler
+     */
+    public void dump(StringBuilder out, EventHandler[] handlers, EventHandler highHandler) {
+        final long n = count.get();
+        if (n == 0) {
+            out.append("\nLoop history is empty");
+            return;
+        }
+        final long lastNS = entries[(int) ((n - 1) & mask) * FIELDS + 2];
+        final long capacity = mask + 1L;
+        long first = n;
+        while (first > 0 && n - first < capacity
+                && lastNS - entries[(int) ((first - 1) & mask) * FIELDS + 1] <= WINDOW_NS)
+            first--;
+        out.append("\nLoop history for the last ").append(TimeUnit.NANOSECONDS.toMillis(WINDOW_NS))
+                .append(" ms, ").append(n - first).append(" entries, (start us relative to the last entry ending, duration us)");
+        for (long i = first; i < n; i++) {
+            final int offset = (int) (i & mask) * FIELDS;
+            final long what = entries[offset];
+            final long startNS = entries[offset + 1];
+            final long endNS = entries[offset + 2];
+            out.append("\n  ").append((startNS - lastNS) / 1000)
+                    .append(' ').append((endNS - startNS) / 1000).append(' ');
+            final int index = (int) (what >> 1);
+            if (index == PAUSE) {
+                out.append("pause");
+                continue;
+            }
+            final EventHandler handler = index == HIGH ? highHandler
+                    : index < handlers.length ? handlers[index] : null;
+            out.append(index == HIGH ? "HIGH " : "[" + index + "] ")
+                    .append(handler == null ? "?" : handler.getClass().getName())
+                    .append((what & 1) != 0 ? " busy" : " idle");
+        }
+    }
+}
@@ -35,7 +35,8 @@ public class EventLoopThreadHolder implements ThreadHolder {
 
     @Override
     public boolean isAlive() {
-        return eventLoop.isAlive();
+        // an event loop which is only started once it has a handler is monitored from before its thread starts
+        return eventLoop.isAlive() || !eventLoop.isStopped();
     }
 
     @Override
@@ -75,6 +76,17 @@ public class EventLoopThreadHolder implements ThreadHolder {
         intervalToAddNS = (long) Math.min(1.41d * intervalToAddNS, 20d * monitorIntervalNS);
     }
 
+    @Override
+    public long nextCheckNS(long nowNS) {
+        final long intervalNS = nowNS + monitorIntervalNS;
+        final long startedNS = startedNS();
+        if (startedNS == 0 || startedNS == CoreEventLoop.NOT_IN_A_LOOP)
+            return intervalNS;
+        // when the current iteration will have blocked for long enough to be reported
+        final long printNS = startedNS + printBlockTimeNS;
+        return printNS - intervalNS < 0 ? printNS : intervalNS;
+    }
+
     @Override
     public long timingToleranceNS() {
         return monitorIntervalNS + timingErrorNS();
@@ -0,0 +1,302 @@
+/*
+ * Copyright 2016-2022 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.threads.internal;
+
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.core.threads.EventHandler;
+import net.openhft.chronicle.core.threads.EventLoop;
+import net.openhft.chronicle.core.threads.InvalidEventHandlerException;
+import net.openhft.chronicle.threads.EventLoopFlow;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers the items in a ring to a {@link EventLoopFlow.Subscriber} on an event loop, as far as its demand allows, then
+ * completes it once the ring is empty. Errors and cancellation take effect straight away.
+ * <p>
+ * The ring has a single producer, while {@link #request(long)} and {@link #cancel()} can be called from any thread.
+ */
+public class FlowDeliveryHandler<T> implements EventHandler, EventLoopFlow.Subscription {
+    // bounds the time spent in one action so other handlers on the loop are not starved
+    private static final int MAX_BATCH = 256;
+
+    protected final EventLoop eventLoop;
+    protected final SpscRing<T> ring;
+    private final AtomicLong demand = new AtomicLong();
+    private volatile EventLoopFlow.Subscriber<? super T> subscriber;
+    protected volatile boolean cancelled = false;
+    protected volatile boolean completed = false;
+    @Nullable
+    protected volatile Throwable error = null;
+    // only accessed by the event loop thread
+    private boolean subscribed = false;
+
+    FlowDeliveryHandler(@NotNull EventLoop eventLoop, int capacity) {
+        this.eventLoop = eventLoop;
+        this.ring = new SpscRing<>(capacity);
+    }
+
+    /**
+     * Set the subscriber and start delivering to it
+     */
+    void subscriber(@NotNull EventLoopFlow.Subscriber<? super T> subscriber) {
+        this.subscriber = subscriber;
+        eventLoop.addHandler(this);
+    }
+
+    @Override
+    public void request(long n) {
+        if (n <= 0) {
+            error = new IllegalArgumentException("request must be positive, was " + n);
+            eventLoop.unpause();
+            return;
+        }
+        for (; ; ) {
+            final long current = demand.get();
+            if (current == Long.MAX_VALUE)
+                return;
+            final long updated = current + n < 0 ? Long.MAX_VALUE : current + n;
+            if (demand.compareAndSet(current, updated))
+                break;
+        }
+        eventLoop.unpause();
+    }
+
+    @Override
+    public void cancel() {
+        cancelled = true;
+        eventLoop.unpause();
+    }
+
+    @Override
+    public void loopStarted() {
+        ring.consumer(Thread.currentThread());
+    }
+
+    @Override
+    public boolean action() throws InvalidEventHandlerException {
+        final EventLoopFlow.Subscriber<? super T> s = subscriber;
+        if (!subscribed) {
+            subscribed = true;
+            s.onSubscribe(this);
+        }
+        if (cancelled) {
+            cancelUpstream();
+            throw InvalidEventHandlerException.reusable();
+        }
+        final Throwable throwable = error;
+        if (throwable != null)
+            terminate(s, throwable);
+        // read before checking the ring is empty, so the items published before completing are seen
+        final boolean done = completed;
+
+        final long available = demand.get();
+        int count = 0;
+        try {
+            for (T item; count < MAX_BATCH && count < available && !cancelled && (item = ring.peek()) != null; count++) {
+                ring.advance();
+                s.onNext(item);
+            }
+        } catch (Throwable t) {
+            Jvm.warn().on(getClass(), "Subscriber.onNext threw, cancelling " + s, t);
+            cancelled = true;
+        }
+        if (count > 0) {
+            if (available != Long.MAX_VALUE)
+                demand.addAndGet(-count);
+            consumed(count);
+            return true;
+        }
+        if (ring.isEmpty()) {
+            if (done)
+                terminate(s, null);
+            // busy if an item arrived before the publisher could see it needs to unpark this loop
+            return ring.awaitingEvents();
+        }
+        return false;
+    }
+
+    private void terminate(EventLoopFlow.Subscriber<? super T> s, @Nullable Throwable throwable) throws InvalidEventHandlerException {
+        cancelled = true;
+        cancelUpstream();
+        try {
+            if (throwable == null)
+                s.onComplete();
+            else
+                s.onError(throwable);
+        } catch (Throwable t) {
+            Jvm.warn().on(getClass(), "Subscriber threw on termination " + s, t);
+        }
+        throw InvalidEventHandlerException.reusable();
+    }
+
+    @Override
+    public void loopFinished() {
+        ring.consumer(null);
+    }
+
+    /**
+     * Called on the event loop thread after items have been taken from the ring
+     */
+    protected void consumed(int count) {
+        // Do nothing unless overridden
+    }
+
+    /**
+     * Called on the event loop thread once the subscriber has cancelled or been terminated
+     */
+    protected void cancelUpstream() {
+        // Do nothing unless overridden
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{" +
+                "subscriber=" + subscriber +
+                ", size=" + ring.size() +
+                ", demand=" + demand.get() +
+                '}';
+    }
+
+    public static final class RingPublisherImpl<T> extends FlowDeliveryHandler<T> implements EventLoopFlow.RingPublisher<T> {
+        private final AtomicBoolean hasSubscriber = new AtomicBoolean();
+
+        public RingPublisherImpl(@NotNull EventLoop eventLoop, int capacity) {
+            super(eventLoop, capacity);
+        }
+
+        @Override
+        public void subscribe(EventLoopFlow.Subscriber<? super T> subscriber) {
+            Objects.requireNonNull(subscriber);
+            if (!hasSubscriber.compareAndSet(false, true)) {
+                subscriber.onSubscribe(NoSubscription.INSTANCE);
+                subscriber.onError(new IllegalStateException("Only one subscriber is supported"));
+                return;
+            }
+            subscriber(subscriber);
+        }
+
+        /**
+         * @return false if the ring is full. Items published after the subscriber cancels are discarded.
+         */
+        @Override
+        public boolean publish(T item) {
+            Objects.requireNonNull(item);
+            return cancelled || ring.publish(item);
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+            eventLoop.unpause();
+        }
+
+        @Override
+        public void error(@NotNull Throwable throwable) {
+            error = throwable;
+            eventLoop.unpause();
+        }
+    }
+
+    public static final class SubscriberImpl<T> extends FlowDeliveryHandler<T> implements EventLoopFlow.Subscriber<T> {
+        private final int requestBatch;
+        @Nullable
+        private volatile EventLoopFlow.Subscription upstream;
+        // only accessed by the event loop thread
+        private int consumed = 0;
+
+        @SuppressWarnings("this-escape")
+        public SubscriberImpl(@NotNull EventLoop eventLoop, @NotNull EventLoopFlow.Subscriber<? super T> subscriber, int capacity) {
+            super(eventLoop, capacity);
+            this.requestBatch = Math.max(1, ring.capacity() / 2);
+            subscriber(subscriber);
+        }
+
+        @Override
+        public void onSubscribe(EventLoopFlow.Subscription subscription) {
+            if (upstream != null) {
+                subscription.cancel();
+                return;
+            }
+            upstream = subscription;
+            if (cancelled)
+                subscription.cancel();
+            else
+                subscription.request(ring.capacity());
+        }
+
+        @Override
+        public void onNext(T item) {
+            Objects.requireNonNull(item);
+            if (!ring.publish(item) && !cancelled) {
+                error = new IllegalStateException("Received more items than requested");
+                eventLoop.unpause();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            eventLoop.unpause();
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+            eventLoop.unpause();
+        }
+
+        /**
+         * Replenish the items requested from upstream in batches of half the ring
+         */
+        @Override
+        protected void consumed(int count) {
+            consumed += count;
+            final EventLoopFlow.Subscription subscription = upstream;
+            if (consumed >= requestBatch && subscription != null) {
+                subscription.request(consumed);
+                consumed = 0;
+            }
+        }
+
+        @Override
+        protected void cancelUpstream() {
+            final EventLoopFlow.Subscription subscription = upstream;
+            if (subscription != null)
+                subscription.cancel();
+        }
+    }
+
+    enum NoSubscription implements EventLoopFlow.Subscription {
+        INSTANCE;
+
+        @Override
+        public void request(long n) {
+            // nothing to request
+        }
+
+        @Override
+        public void cancel() {
+            // nothing to cancel
+        }
+    }
+}
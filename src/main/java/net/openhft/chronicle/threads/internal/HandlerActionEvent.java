@@ -0,0 +1,69 @@
+/*
+ * Copyright 2016-2022 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.threads.internal;
+
+import jdk.jfr.*;
+import net.openhft.chronicle.core.threads.EventHandler;
+import net.openhft.chronicle.core.threads.InvalidEventHandlerException;
+
+/**
+ * JFR event for a call to {@link EventHandler#action()} which took longer than the threshold.
+ * Only used when {@link JfrSupport#ENABLED}
+ */
+@Name("net.openhft.chronicle.threads.HandlerAction")
+@Label("Slow Event Handler")
+@Category({"Chronicle", "Threads"})
+@Description("An EventHandler.action() call that ran for longer than the threshold")
+@Threshold("1 ms")
+@StackTrace(false)
+public final class HandlerActionEvent extends Event {
+    @Label("Event Loop")
+    String eventLoop;
+
+    @Label("Handler")
+    Class<?> handler;
+
+    @Label("Busy")
+    boolean busy;
+
+    /**
+     * Calls {@code handler.action()} recording an event if it exceeds the threshold.
+     *
+     * @param eventLoop the name of the event loop running the handler
+     * @param handler   to call
+     * @return the result of the action
+     */
+    public static boolean action(String eventLoop, EventHandler handler) throws InvalidEventHandlerException {
+        final HandlerActionEvent event = new HandlerActionEvent();
+        event.begin();
+        boolean busy = false;
+        try {
+            busy = handler.action();
+            return busy;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.eventLoop = eventLoop;
+                event.handler = handler.getClass();
+                event.busy = busy;
+                event.commit();
+            }
+        }
+    }
+}
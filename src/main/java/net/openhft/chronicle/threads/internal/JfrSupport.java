@@ -0,0 +1,42 @@
+/*
+ * Copyright 2016-2022 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.threads.internal;
+
+import net.openhft.chronicle.core.Jvm;
+
+/**
+ * Holds the switch for the Java Flight Recorder events emitted by the event loops and pausers.
+ * <p>
+ * This class deliberately does not reference any {@code jdk.jfr} type so it can be loaded on a JVM without JFR.
+ * When disabled, the checks against {@link #ENABLED} are constant folded away by the JIT.
+ */
+public enum JfrSupport {
+    ; // none
+    public static final boolean ENABLED = Jvm.getBoolean("chronicle.threads.jfr") && isJfrAvailable();
+
+    private static boolean isJfrAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event");
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            Jvm.warn().on(JfrSupport.class, "chronicle.threads.jfr is set, but JFR is not available on this JVM");
+            return false;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2016-2022 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.threads.internal;
+
+import jdk.jfr.*;
+
+/**
+ * JFR event for an event loop reported as blocked by the {@link ThreadMonitorHarness}.
+ * Only used when {@link JfrSupport#ENABLED}
+ */
+@Name("net.openhft.chronicle.threads.LoopBlocked")
+@Label("Event Loop Blocked")
+@Category({"Chronicle", "Threads"})
+@Description("An event loop iteration detected as blocked by the loop block monitor")
+@StackTrace(false)
+public final class LoopBlockedEvent extends Event {
+    @Label("Event Loop")
+    String eventLoop;
+
+    @Label("Blocked For")
+    @Timespan(Timespan.NANOSECONDS)
+    long blockedTime;
+
+    public static void blocked(String eventLoop, long blockedNS) {
+        final LoopBlockedEvent event = new LoopBlockedEvent();
+        if (event.shouldCommit()) {
+            event.eventLoop = eventLoop;
+            event.blockedTime = blockedNS;
+            event.commit();
+        }
+    }
+}
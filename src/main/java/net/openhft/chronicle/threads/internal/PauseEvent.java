@@ -0,0 +1,59 @@
+/*
+ * Copyright 2016-2022 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.threads.internal;
+
+import jdk.jfr.*;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * JFR event for the time a pauser spends parked. Only used when {@link JfrSupport#ENABLED}
+ */
+@Name("net.openhft.chronicle.threads.Pause")
+@Label("Pauser Park")
+@Category({"Chronicle", "Threads"})
+@Description("A Pauser parking the event loop thread")
+@Threshold("1 ms")
+@StackTrace(false)
+public final class PauseEvent extends Event {
+    @Label("Pauser")
+    Class<?> pauser;
+
+    @Label("Requested")
+    @Timespan(Timespan.NANOSECONDS)
+    long requestedTime;
+
+    /**
+     * Park the current thread, recording an event if the park exceeds the threshold.
+     *
+     * @param pauser  the pauser parking
+     * @param delayNS to park for
+     */
+    public static void parkNanos(Object pauser, long delayNS) {
+        final PauseEvent event = new PauseEvent();
+        event.begin();
+        LockSupport.parkNanos(delayNS);
+        event.end();
+        if (event.shouldCommit()) {
+            event.pauser = pauser.getClass();
+            event.requestedTime = delayNS;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2016-2022 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.threads.internal;
+
+import net.openhft.chronicle.core.threads.EventHandler;
+import net.openhft.chronicle.core.threads.HandlerPriority;
+import net.openhft.chronicle.threads.PipelinePublisher;
+import net.openhft.chronicle.threads.PipelineStage;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Drains the ring feeding a {@link PipelineStage} on the stage's event loop.
+ */
+public final class PipelineStageHandler<I, O> implements EventHandler {
+    // bounds the time spent in one action so other handlers on the loop are not starved
+    private static final int MAX_BATCH = 256;
+    private final String name;
+    private final SpscRing<I> in;
+    private final PipelineStage<I, O> stage;
+    private final PipelinePublisher<O> out;
+    // the ring feeding the next stage, if any
+    private final SpscRing<O> outRing;
+    private final HandlerPriority priority;
+
+    @SuppressWarnings("unchecked")
+    public PipelineStageHandler(String name, SpscRing<I> in, PipelineStage<I, O> stage, PipelinePublisher<O> out, HandlerPriority priority) {
+        this.name = name;
+        this.in = in;
+        this.stage = stage;
+        this.out = out;
+        this.outRing = out instanceof SpscRing ? (SpscRing<O>) out : null;
+        this.priority = priority;
+    }
+
+    @Override
+    public void loopStarted() {
+        in.consumer(Thread.currentThread());
+        if (outRing != null)
+            outRing.producer(Thread.currentThread());
+    }
+
+    @Override
+    public boolean action() {
+        int count = 0;
+        I event = null;
+        for (; count < MAX_BATCH && (event = in.peek()) != null; count++) {
+            if (!stage.onEvent(event, out))
+                break;
+            in.advance();
+        }
+        if (count > 0)
+            return true;
+        // only wait to be unparked if the ring is empty, or the stage is held back by the next stage's ring being full
+        if (event == null)
+            return in.awaitingEvents();
+        return outRing != null && outRing.awaitingSpace();
+    }
+
+    @Override
+    public void loopFinished() {
+        in.consumer(null);
+        if (outRing != null)
+            outRing.producer(null);
+    }
+
+    @Override
+    public @NotNull HandlerPriority priority() {
+        return priority;
+    }
+
+    @Override
+    public String toString() {
+        return "PipelineStageHandler{" +
+                "name='" + name + '\'' +
+                ", size=" + in.size() +
+                '}';
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2016-2022 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.threads.internal;
+
+import net.openhft.chronicle.threads.PipelinePublisher;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A preallocated single producer, single consumer ring of references.
+ * <p>
+ * The consumer calls {@link #awaitingEvents()} when it finds the ring empty, and the producer only unparks the consumer
+ * thread when it has done so, so a busy consumer costs the producer no more than a volatile read. The consumer must not
+ * pause if {@link #awaitingEvents()} returns true.
+ * <p>
+ * Likewise a producer which is held back by a full ring calls {@link #awaitingSpace()}, and the consumer only unparks the
+ * producer thread when it has done so. The producer must not pause if {@link #awaitingSpace()} returns true.
+ */
+public final class SpscRing<T> implements PipelinePublisher<T> {
+    private final Object[] buffer;
+    private final int mask;
+    // written by the producer
+    private final AtomicLong tail = new AtomicLong();
+    private long cachedHead;
+    private boolean publishFailed;
+    // written by the consumer
+    private final AtomicLong head = new AtomicLong();
+    private long cachedTail;
+    private volatile boolean consumerWaiting;
+    private volatile Thread consumer;
+    private volatile boolean producerWaiting;
+    private volatile Thread producer;
+
+    public SpscRing(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30)
+            throw new IllegalArgumentException("capacity must be between 1 and 2^30, was " + capacity);
+        final int size = Integer.highestOneBit(capacity - 1) << 1;
+        buffer = new Object[Math.max(1, size)];
+        mask = buffer.length - 1;
+    }
+
+    public int capacity() {
+        return buffer.length;
+    }
+
+    /**
+     * Add an event to the ring, called only by the producer.
+     *
+     * @return false if the ring is full
+     */
+    @Override
+    public boolean publish(T event) {
+        final long t = tail.get();
+        if (t - cachedHead >= buffer.length) {
+            cachedHead = head.get();
+            if (t - cachedHead >= buffer.length) {
+                publishFailed = true;
+                return false;
+            }
+        }
+        if (publishFailed) {
+            publishFailed = false;
+            producerWaiting = false;
+        }
+        buffer[(int) t & mask] = event;
+        // a volatile write so the read of consumerWaiting below can't be reordered before it
+        tail.set(t + 1);
+        if (consumerWaiting) {
+            final Thread thread = consumer;
+            if (thread != null)
+                LockSupport.unpark(thread);
+        }
+        return true;
+    }
+
+    /**
+     * @return the next event without removing it, or null if the ring is empty. Called only by the consumer.
+     */
+    @SuppressWarnings("unchecked")
+    @Nullable
+    public T peek() {
+        final long h = head.get();
+        if (h == cachedTail) {
+            cachedTail = tail.get();
+            if (h == cachedTail)
+                return null;
+        }
+        if (consumerWaiting)
+            consumerWaiting = false;
+        return (T) buffer[(int) h & mask];
+    }
+
+    /**
+     * Remove the event last returned by {@link #peek()}. Called only by the consumer.
+     */
+    public void advance() {
+        final long h = head.get();
+        buffer[(int) h & mask] = null;
+        // a volatile write so the read of producerWaiting below can't be reordered before it
+        head.set(h + 1);
+        if (producerWaiting) {
+            final Thread thread = producer;
+            if (thread != null)
+                LockSupport.unpark(thread);
+        }
+    }
+
+    public boolean isEmpty() {
+        return head.get() == tail.get();
+    }
+
+    public int size() {
+        return (int) (tail.get() - head.get());
+    }
+
+    public boolean isFull() {
+        return tail.get() - head.get() >= buffer.length;
+    }
+
+    /**
+     * @param consumer the thread to unpark when an event is published after {@link #awaitingEvents()}
+     */
+    public void consumer(Thread consumer) {
+        this.consumer = consumer;
+    }
+
+    /**
+     * @param producer the thread to unpark when an event is removed after {@link #awaitingSpace()}
+     */
+    public void producer(Thread producer) {
+        this.producer = producer;
+    }
+
+    /**
+     * Called by the consumer when it finds the ring empty, before its event loop may pause.
+     *
+     * @return true if an event was published before the producer could see the consumer is waiting, in which case the
+     * producer may not have unparked it, so the consumer must not pause
+     */
+    public boolean awaitingEvents() {
+        consumerWaiting = true;
+        if (isEmpty())
+            return false;
+        consumerWaiting = false;
+        return true;
+    }
+
+    /**
+     * Called by the producer when it is held back, before its event loop may pause.
+     *
+     * @return true if the ring was full, but an event was removed before the consumer could see the producer is waiting,
+     * in which case the consumer may not have unparked it, so the producer must not pause. False if the last publish
+     * didn't fail, as then it isn't this ring holding the producer back.
+     */
+    public boolean awaitingSpace() {
+        if (!publishFailed)
+            return false;
+        producerWaiting = true;
+        if (isFull())
+            return false;
+        producerWaiting = false;
+        return true;
+    }
+}
@@ -19,14 +19,18 @@
 package net.openhft.chronicle.threads.internal;
 
 import net.openhft.chronicle.core.threads.InvalidEventHandlerException;
+import net.openhft.chronicle.threads.ScheduledMonitorHandler;
 import net.openhft.chronicle.threads.ThreadHolder;
 import net.openhft.chronicle.threads.ThreadMonitor;
 
+import java.util.concurrent.TimeUnit;
 import java.util.function.LongSupplier;
 
 import static net.openhft.chronicle.threads.CoreEventLoop.NOT_IN_A_LOOP;
 
-public class ThreadMonitorHarness implements ThreadMonitor {
+public class ThreadMonitorHarness implements ThreadMonitor, ScheduledMonitorHandler {
+    // no more often than the monitor loop's pauser would otherwise poll it
+    private static final long MIN_CHECK_INTERVAL_NS = TimeUnit.MILLISECONDS.toNanos(Integer.getInteger("monitor.interval", 10));
     private final ThreadHolder thread;
     private final LongSupplier timeSupplier;
     private long lastActionCall = Long.MAX_VALUE;
@@ -68,10 +72,20 @@ public class ThreadMonitorHarness implements ThreadMonitor {
         }
         if (!thread.shouldLog(nowNS))
             return false;
+        if (JfrSupport.ENABLED)
+            LoopBlockedEvent.blocked(thread.getName(), nowNS - startedNS);
         thread.dumpThread(startedNS, nowNS);
         return false; // true assumes we are about to need to check again.
     }
 
+    @Override
+    public long nextActionNS() {
+        final long nowNS = System.nanoTime();
+        final long minNS = nowNS + MIN_CHECK_INTERVAL_NS;
+        final long nextNS = thread.nextCheckNS(nowNS);
+        return nextNS - minNS > 0 ? nextNS : minNS;
+    }
+
     @Override
     public String toString() {
         return "ThreadMonitorHarness<" + thread.getName() + ">";
@@ -107,6 +107,12 @@ public class ThreadsThreadHolder implements ThreadHolder {
         return (timeInNS / 100_000) / 10d;
     }
 
+    @Override
+    public long nextCheckNS(long nowNS) {
+        // when it will have been over the time limit, or if it already is, as often as the monitor polls
+        return startedNS() + timeLimitNS;
+    }
+
     @Override
     public long timingToleranceNS() {
         return timeLimitNS + timingErrorNS();
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2016-2022 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.threads.internal;
+
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+
+/**
+ * An {@link ExecutorService} which keeps track of its threads, so they can be unparked or interrupted without
+ * reflecting on its internals.
+ */
+public interface TrackedExecutorService extends ExecutorService {
+    /**
+     * @param consumer to call for each thread which has been created and not yet finished
+     */
+    void forEachThread(Consumer<Thread> consumer);
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2016-2022 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.threads.internal;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/**
+ * Like {@link Executors}, but the executors are {@link TrackedExecutorService}s.
+ */
+public enum TrackedExecutors {
+    ; // none
+
+    @NotNull
+    public static ExecutorService newSingleThreadExecutor(ThreadFactory threadFactory) {
+        return newFixedThreadPool(1, threadFactory);
+    }
+
+    @NotNull
+    public static ExecutorService newFixedThreadPool(int threads, ThreadFactory threadFactory) {
+        return new TrackedThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), new TrackedThreadFactory(threadFactory));
+    }
+
+    @NotNull
+    public static ExecutorService newCachedThreadPool(ThreadFactory threadFactory) {
+        return new TrackedThreadPoolExecutor(0, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), new TrackedThreadFactory(threadFactory));
+    }
+
+    @NotNull
+    public static ScheduledExecutorService newSingleThreadScheduledExecutor(ThreadFactory threadFactory) {
+        return new TrackedScheduledThreadPoolExecutor(new TrackedThreadFactory(threadFactory));
+    }
+
+    /**
+     * Adds each thread to a set when it is created, and removes it as it finishes.
+     */
+    static final class TrackedThreadFactory implements ThreadFactory {
+        private final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        private final ThreadFactory threadFactory;
+
+        TrackedThreadFactory(ThreadFactory threadFactory) {
+            this.threadFactory = threadFactory;
+        }
+
+        @Override
+        public Thread newThread(@NotNull Runnable r) {
+            final Thread thread = threadFactory.newThread(() -> {
+                try {
+                    r.run();
+                } finally {
+                    threads.remove(Thread.currentThread());
+                }
+            });
+            // added before it starts, so it can't be missed by a shutdown which races with it starting
+            threads.add(thread);
+            return thread;
+        }
+
+        void forEachThread(Consumer<Thread> consumer) {
+            for (Thread thread : threads)
+                consumer.accept(thread);
+        }
+    }
+
+    static final class TrackedThreadPoolExecutor extends ThreadPoolExecutor implements TrackedExecutorService {
+        private final TrackedThreadFactory threadFactory;
+
+        TrackedThreadPoolExecutor(int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit unit,
+                                  BlockingQueue<Runnable> workQueue, TrackedThreadFactory threadFactory) {
+            super(corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue, threadFactory);
+            this.threadFactory = threadFactory;
+        }
+
+        @Override
+        public void forEachThread(Consumer<Thread> consumer) {
+            threadFactory.forEachThread(consumer);
+        }
+    }
+
+    static final class TrackedScheduledThreadPoolExecutor extends ScheduledThreadPoolExecutor implements TrackedExecutorService {
+        private final TrackedThreadFactory threadFactory;
+
+        TrackedScheduledThreadPoolExecutor(TrackedThreadFactory threadFactory) {
+            super(1, threadFactory);
+            this.threadFactory = threadFactory;
+        }
+
+        @Override
+        public void forEachThread(Consumer<Thread> consumer) {
+            threadFactory.forEachThread(consumer);
+        }
+    }
+}
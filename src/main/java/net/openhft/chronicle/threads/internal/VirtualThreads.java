@@ -0,0 +1,82 @@
+/*
+ * Copyright 2016-2022 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.threads.internal;
+
+import net.openhft.chronicle.core.Jvm;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates virtual threads on Java 21+, found by reflection so this library still runs on Java 8.
+ */
+public enum VirtualThreads {
+    ; // none
+    private static final Method OF_VIRTUAL;
+    private static final Method NAME;
+    private static final Method FACTORY;
+    public static final boolean AVAILABLE;
+
+    static {
+        Method ofVirtual = null, name = null, factory = null;
+        try {
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            final Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            name = builder.getMethod("name", String.class, long.class);
+            factory = builder.getMethod("factory");
+        } catch (ReflectiveOperationException | LinkageError e) {
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        NAME = name;
+        FACTORY = factory;
+        AVAILABLE = ofVirtual != null;
+    }
+
+    /**
+     * @param name prefix of the threads' names, which are followed by a counter
+     * @return a factory of virtual threads
+     * @throws UnsupportedOperationException if virtual threads are not {@link #AVAILABLE}
+     */
+    @NotNull
+    public static ThreadFactory factory(String name) {
+        if (!AVAILABLE)
+            throw new UnsupportedOperationException("Virtual threads need Java 21 or later, this is " + Jvm.majorVersion());
+        try {
+            Object builder = OF_VIRTUAL.invoke(null);
+            builder = NAME.invoke(builder, name + "-", 0L);
+            return (ThreadFactory) FACTORY.invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            throw new UnsupportedOperationException("Unable to create a virtual thread factory", e);
+        }
+    }
+
+    /**
+     * @param property the system property enabling virtual threads
+     * @return true if the property is set and virtual threads are available, warning if they are not
+     */
+    public static boolean enabled(String property) {
+        if (!Jvm.getBoolean(property))
+            return false;
+        if (!AVAILABLE)
+            Jvm.warn().on(VirtualThreads.class, property + " is set, but virtual threads need Java 21 or later");
+        return AVAILABLE;
+    }
+}
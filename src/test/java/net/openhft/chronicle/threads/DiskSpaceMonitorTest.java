@@ -21,15 +21,31 @@ package net.openhft.chronicle.threads;
 import net.openhft.chronicle.core.Jvm;
 import net.openhft.chronicle.core.onoes.ExceptionKey;
 import net.openhft.chronicle.core.time.SetTimeProvider;
+import net.openhft.chronicle.core.time.SystemTimeProvider;
+import net.openhft.chronicle.core.time.TimeProvider;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.AfterEach;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.time.Duration;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 public class DiskSpaceMonitorTest extends ThreadsTestCommon {
@@ -89,4 +105,115 @@ public class DiskSpaceMonitorTest extends ThreadsTestCommon {
         Thread.sleep(1000);
     }
 
+    @Test
+    public void pollDiskSpaceFindsTheFileStoreOnTheCheckerThread() {
+        final File file = new File(".");
+        DiskSpaceMonitor.INSTANCE.pollDiskSpace(file);
+        // run as the checker thread would
+        DiskSpaceMonitor.INSTANCE.run();
+        assertTrue(DiskSpaceMonitor.INSTANCE.fileStoreCacheMap.containsKey(file.getAbsolutePath()));
+        assertFalse(DiskSpaceMonitor.INSTANCE.diskAttributesMap.isEmpty());
+
+        final File missing = new File("does-not-exist-" + System.nanoTime());
+        DiskSpaceMonitor.INSTANCE.pollDiskSpace(missing);
+        DiskSpaceMonitor.INSTANCE.run();
+        assertFalse(DiskSpaceMonitor.INSTANCE.fileStoreCacheMap.containsKey(missing.getAbsolutePath()));
+    }
+
+    @Test
+    public void predictsTimeToFullFromTheFillRate() throws IOException {
+        final DiskSpaceMonitor.DiskAttributes da = DiskSpaceMonitor.INSTANCE.new DiskAttributes(Files.getFileStore(Paths.get(".")));
+        assertEquals(Long.MAX_VALUE, da.timeToFullMS(10L << 30));
+
+        // filling at 100 MB/s, checked every 10 seconds, for long enough for the average to settle
+        long unallocated = 1L << 40;
+        da.updateFillRate(0, unallocated);
+        for (int i = 1; i <= 60; i++) {
+            unallocated -= 10L * (100 << 20);
+            da.updateFillRate(i * 10_000L, unallocated);
+        }
+        assertEquals(100 << 20, da.bytesPerSecond, 1 << 20);
+        assertEquals(unallocated * 1000 / (100 << 20), da.timeToFullMS(unallocated), 1_000);
+
+        // space freed, so not filling
+        da.updateFillRate(700_000, unallocated + (1L << 40));
+        assertEquals(Long.MAX_VALUE, da.timeToFullMS(unallocated));
+    }
+
+    @Test
+    public void fillingUpIsWarnedAgainOnceTheTimeToFullHalves() throws IOException {
+        final FileStore fileStore = Files.getFileStore(Paths.get("."));
+        final NotifyDiskLowLogWarn notifyDiskLow = new NotifyDiskLowLogWarn();
+        final Map<ExceptionKey, Integer> map = Jvm.recordExceptions();
+        try {
+            for (long timeToFullS : new long[]{3000, 2000, 1500, 1000, 750, 600})
+                notifyDiskLow.fillingUp(timeToFullS * 1000, 1.5 * (1 << 20), fileStore);
+        } finally {
+            Jvm.resetExceptionHandlers();
+        }
+        final List<String> messages = map.keySet().stream()
+                .filter(k -> k.clazz() == DiskSpaceMonitor.class)
+                .map(ExceptionKey::message)
+                .sorted()
+                .collect(Collectors.toList());
+        assertEquals(3, messages.size(), messages.toString());
+        assertTrue(messages.get(0).endsWith("is filling at 1.5 MB/s and is predicted to be full in 1500 seconds"), messages.get(0));
+        assertTrue(messages.get(1).endsWith("is filling at 1.5 MB/s and is predicted to be full in 3000 seconds"), messages.get(1));
+        assertTrue(messages.get(2).endsWith("is filling at 1.5 MB/s and is predicted to be full in 750 seconds"), messages.get(2));
+    }
+
+    @Test
+    public void attachToAnEventLoop() throws InterruptedException {
+        assumeTrue(DiskSpaceMonitor.INSTANCE.executor != null);
+        final BlockingQueue<Thread> checkedOn = new LinkedBlockingQueue<>();
+        MonitorEventLoop.MONITOR_INITIAL_DELAY_MS = 0;
+        try (final MonitorEventLoop eventLoop = new MonitorEventLoop(null, "disk~monitor", Pauser.millis(1))) {
+            DiskSpaceMonitor.INSTANCE.attachTo(eventLoop);
+            try {
+                assertNull(DiskSpaceMonitor.INSTANCE.executor);
+                DiskSpaceMonitor.INSTANCE.setTimeProvider(new ThreadRecordingTimeProvider(checkedOn));
+                DiskSpaceMonitor.INSTANCE.pollDiskSpace(new File("."));
+                eventLoop.start();
+                // the checks time how long it takes to find the disk of a new file
+                final Thread thread = checkedOn.poll(5, TimeUnit.SECONDS);
+                assertNotNull(thread, "the disk space wasn't checked");
+                assertTrue(eventLoop.isRunningOnThread(thread), thread.getName());
+                assertSame(thread, checkedOn.poll(5, TimeUnit.SECONDS));
+                assertFalse(DiskSpaceMonitor.INSTANCE.diskAttributesMap.isEmpty());
+            } finally {
+                DiskSpaceMonitor.INSTANCE.detach();
+                DiskSpaceMonitor.INSTANCE.setTimeProvider(SystemTimeProvider.INSTANCE);
+                MonitorEventLoop.MONITOR_INITIAL_DELAY_MS = 10_000;
+            }
+            assertNotNull(DiskSpaceMonitor.INSTANCE.executor);
+        }
+    }
+
+    /**
+     * Records the threads which the disk space is checked on
+     */
+    static final class ThreadRecordingTimeProvider implements TimeProvider {
+        private final BlockingQueue<Thread> threads;
+
+        ThreadRecordingTimeProvider(BlockingQueue<Thread> threads) {
+            this.threads = threads;
+        }
+
+        @Override
+        public long currentTimeMillis() {
+            return SystemTimeProvider.INSTANCE.currentTimeMillis();
+        }
+
+        @Override
+        public long currentTimeMicros() {
+            return SystemTimeProvider.INSTANCE.currentTimeMicros();
+        }
+
+        @Override
+        public long currentTimeNanos() {
+            // only called before and after finding the disk of a new file
+            threads.add(Thread.currentThread());
+            return SystemTimeProvider.INSTANCE.currentTimeNanos();
+        }
+    }
 }
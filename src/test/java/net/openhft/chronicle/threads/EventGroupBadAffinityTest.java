@@ -34,7 +34,20 @@ public class EventGroupBadAffinityTest extends ThreadsTestCommon {
         expectException("Cannot parse 'xxx'");
         ignoreException("Timed out waiting for start!");
         try (final EventLoop eventGroup = EventGroup.builder().withBinding("xxx").build()) {
+            // the core event loop is only started once it has a handler
+            eventGroup.addHandler(() -> false);
             assertThrows(TimeoutException.class, eventGroup::start);
         }
     }
+
+    @Timeout(5_000)
+    @Test
+    public void testInvalidAffinityOfACoreEventLoopStartedByItsFirstHandler() {
+        expectException("Cannot parse 'xxx'");
+        ignoreException("Timed out waiting for start!");
+        try (final EventLoop eventGroup = EventGroup.builder().withBinding("xxx").build()) {
+            eventGroup.start();
+            assertThrows(TimeoutException.class, () -> eventGroup.addHandler(() -> false));
+        }
+    }
 }
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2016-2022 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.threads;
+
+import net.openhft.affinity.CpuLayout;
+import net.openhft.chronicle.core.threads.HandlerPriority;
+import net.openhft.chronicle.threads.internal.CpuTopology;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+class EventGroupBuilderTest extends ThreadsTestCommon {
+
+    @Test
+    void buildingTwiceWithAutomaticBindingClaimsOtherCores() {
+        // 1 socket of 4 cores, with cpu N and N + 4 sharing a core, all isolated
+        final CpuLayout layout = mock(CpuLayout.class);
+        when(layout.cpus()).thenReturn(8);
+        when(layout.coreId(anyInt())).thenAnswer(i -> i.<Integer>getArgument(0) % 4);
+        final CpuTopology topology = new CpuTopology(layout, CpuTopology.parseCpuList("0-7"));
+        final EventGroupBuilder builder = EventGroupBuilder.builder()
+                .withName("automatic")
+                .withPriorities(HandlerPriority.MEDIUM)
+                .bindingAutomatic();
+
+        try (EventGroup first = builder.build(topology);
+             EventGroup second = builder.build(topology)) {
+            // each group has claimed a core of its own, 0 and 1
+            try (CpuTopology.Claim rest = topology.claimIsolatedPhysicalCores(4)) {
+                assertEquals(Arrays.asList(2, 3), rest.cpus());
+            }
+        }
+        try (CpuTopology.Claim all = topology.claimIsolatedPhysicalCores(4)) {
+            assertEquals(Arrays.asList(0, 1, 2, 3), all.cpus());
+        }
+    }
+}
@@ -21,6 +21,9 @@ import net.openhft.chronicle.core.threads.*;
 import net.openhft.chronicle.testframework.Waiters;
 import org.junit.jupiter.api.*;
 
+import java.util.Arrays;
+import java.util.List;
+
 import static net.openhft.chronicle.threads.TestEventHandlers.*;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -332,4 +335,57 @@ class EventGroupHandlerTest extends ThreadsTestCommon {
         addThrowingEventLoopAfterEventLoopStarted(new ThrowingHandler(HandlerPriority.CONCURRENT, true, false));
     }
 
+    @Test
+    void rejectedBatchDoesNotCreateOrAdvanceConcurrentLoops() {
+        try (final EventGroup eventGroup = EventGroup.builder().withName(EVENT_GROUP_NAME).withDaemon(true)
+                .withConcurrentThreadsNum(2)
+                .withPriorities(HandlerPriority.MEDIUM, HandlerPriority.CONCURRENT)
+                .build()) {
+            final ThreadNameHandler concurrent = new ThreadNameHandler(HandlerPriority.CONCURRENT);
+            assertThrows(IllegalStateException.class,
+                    () -> eventGroup.addHandlers(Arrays.asList(concurrent, new ThreadNameHandler(HandlerPriority.REPLICATION))));
+
+            // still the first concurrent loop to be used
+            eventGroup.addHandler(concurrent);
+            eventGroup.start();
+            Waiters.waitForCondition("Wait for handler action", () -> concurrent.threadName != null, 5000);
+            assertTrue(concurrent.threadName.contains("conc-event-loop-0"), concurrent.threadName);
+        }
+    }
+
+    @Test
+    void concurrentHandlersAreRemovedFromWhicheverLoopTheyAreOn() {
+        try (final EventGroup eventGroup = EventGroup.builder().withName(EVENT_GROUP_NAME).withDaemon(true)
+                .withConcurrentThreadsNum(2)
+                .build()) {
+            final List<CountingHandler> handlers = Arrays.asList(
+                    new CountingHandler(HandlerPriority.CONCURRENT),
+                    new CountingHandler(HandlerPriority.CONCURRENT),
+                    new CountingHandler(HandlerPriority.CONCURRENT));
+            eventGroup.addHandlers(handlers);
+            eventGroup.start();
+            Waiters.waitForCondition("Wait for handlers loopStarted called",
+                    () -> handlers.stream().allMatch(h -> h.loopStartedCalled() == 1), 5000);
+
+            eventGroup.removeHandlers(handlers);
+            Waiters.waitForCondition("Wait for handlers closed",
+                    () -> handlers.stream().allMatch(h -> h.closeCalled() == 1), 5000);
+            for (CountingHandler handler : handlers)
+                assertEquals(1, handler.loopFinishedCalled());
+        }
+    }
+
+    static final class ThreadNameHandler extends CountingHandler {
+        volatile String threadName;
+
+        ThreadNameHandler(HandlerPriority priority) {
+            super(priority);
+        }
+
+        @Override
+        public boolean action() {
+            threadName = Thread.currentThread().getName();
+            return super.action();
+        }
+    }
 }
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2016-2022 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.threads;
+
+import net.openhft.chronicle.core.threads.EventHandler;
+import net.openhft.chronicle.core.threads.HandlerPriority;
+import net.openhft.chronicle.testframework.Waiters;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventGroupShardTest extends ThreadsTestCommon {
+
+    @Test
+    void shardForIsStableAndInRange() {
+        for (long key = -1000; key < 1000; key++) {
+            final int shard = EventGroup.shardFor(key, 4);
+            assertTrue(shard >= 0 && shard < 4);
+            assertEquals(shard, EventGroup.shardFor(key, 4));
+            assertEquals(0, EventGroup.shardFor(key, 1));
+        }
+    }
+
+    @Test
+    void shardForOnlyMovesKeysToTheNewShard() {
+        int moved = 0;
+        for (long key = 0; key < 10_000; key++) {
+            final int before = EventGroup.shardFor(key, 4);
+            final int after = EventGroup.shardFor(key, 5);
+            if (before != after) {
+                assertEquals(4, after);
+                moved++;
+            }
+        }
+        // about a fifth of the keys should move
+        assertTrue(moved > 1500 && moved < 2500, "moved " + moved);
+    }
+
+    @Test
+    void bindingFor() {
+        assertEquals("none", EventGroup.bindingFor("none", 3));
+        assertEquals("2", EventGroup.bindingFor("1, 2,3", 1));
+        assertEquals("none", EventGroup.bindingFor("1,2,3", 3));
+        assertEquals("csv:1,2", EventGroup.bindingFor("csv:1,2", 1));
+    }
+
+    @Test
+    void handlersWithTheSameKeyShareAThread() {
+        try (EventGroup eventGroup = EventGroup.builder()
+                .withName("shards")
+                .withPriorities(HandlerPriority.MEDIUM)
+                .withCoreShards(3)
+                .build()) {
+            final KeyedHandler[] handlers = new KeyedHandler[12];
+            for (int i = 0; i < handlers.length; i++) {
+                handlers[i] = new KeyedHandler(i % 4);
+                eventGroup.addHandler(handlers[i]);
+            }
+            eventGroup.start();
+            for (KeyedHandler handler : handlers)
+                Waiters.waitForCondition("handler to run", () -> handler.thread != null, 5000);
+
+            final Set<Thread> threads = new HashSet<>();
+            for (KeyedHandler handler : handlers) {
+                assertSame(handlers[(int) handler.key].thread, handler.thread);
+                assertTrue(eventGroup.isRunningOnThread(handler.thread));
+                threads.add(handler.thread);
+            }
+            assertTrue(threads.size() > 1, "expected more than one shard to be used");
+        }
+    }
+
+    @Test
+    void coreShardsStartWhenTheyFirstGetAHandler() {
+        try (EventGroup eventGroup = EventGroup.builder()
+                .withName("lazy-shards")
+                .withPriorities(HandlerPriority.MEDIUM)
+                .withCoreShards(2)
+                .build()) {
+            eventGroup.start();
+            assertFalse(threadNamed("core-event-loop-1"));
+
+            long key = 0;
+            while (EventGroup.shardFor(key, 2) != 1)
+                key++;
+            final KeyedHandler handler = new KeyedHandler(key);
+            eventGroup.addHandler(handler);
+            Waiters.waitForCondition("handler to run", () -> handler.thread != null, 5000);
+            assertTrue(handler.thread.getName().contains("core-event-loop-1"));
+        }
+    }
+
+    @Test
+    void coreAndMonitorStartWhenTheGroupFirstGetsAHandler() {
+        try (EventGroup eventGroup = EventGroup.builder()
+                .withName("lazy-core")
+                .withPriorities(HandlerPriority.MEDIUM)
+                .withSharedMonitor(false)
+                .build()) {
+            eventGroup.start();
+            assertTrue(eventGroup.isAlive());
+            assertFalse(threadNamed("lazy-core/"));
+
+            final KeyedHandler handler = new KeyedHandler(0);
+            eventGroup.addHandler(handler);
+            Waiters.waitForCondition("handler to run", () -> handler.thread != null, 5000);
+            assertTrue(handler.thread.getName().contains("lazy-core/core-event-loop"));
+            Waiters.waitForCondition("monitor to start", () -> threadNamed("lazy-core/~monitor"), 5000);
+            assertTrue(eventGroup.isAlive());
+        }
+    }
+
+    private static boolean threadNamed(String name) {
+        return Thread.getAllStackTraces().keySet().stream()
+                .anyMatch(t -> t.getName().contains(name));
+    }
+
+    static final class KeyedHandler implements EventHandler, ShardKey {
+        final long key;
+        volatile Thread thread;
+
+        KeyedHandler(long key) {
+            this.key = key;
+        }
+
+        @Override
+        public long shardKey() {
+            return key;
+        }
+
+        @Override
+        public boolean action() {
+            thread = Thread.currentThread();
+            return false;
+        }
+
+        @Override
+        public @NotNull HandlerPriority priority() {
+            return HandlerPriority.MEDIUM;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2016-2022 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.threads;
+
+import net.openhft.affinity.CpuLayout;
+import net.openhft.chronicle.core.threads.EventHandler;
+import net.openhft.chronicle.core.threads.EventLoop;
+import net.openhft.chronicle.core.threads.HandlerPriority;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+class EventGroupSocketPreferenceTest extends ThreadsTestCommon {
+
+    @Test
+    void concurrentHandlerIsPlacedOnALoopBoundToItsPreferredSocket() {
+        // 2 sockets of 4 CPUs each
+        final CpuLayout layout = mock(CpuLayout.class);
+        when(layout.cpus()).thenReturn(8);
+        when(layout.socketId(anyInt())).thenAnswer(i -> i.<Integer>getArgument(0) / 4);
+        try (EventGroup eventGroup = EventGroupBuilder.builder()
+                .withName("socket-preference")
+                .withPriorities(HandlerPriority.MEDIUM, HandlerPriority.CONCURRENT)
+                .withConcurrentThreadsNum(4)
+                // conc loops 0 and 2 are on socket 0, 1 and 3 on socket 1
+                .withConcurrentBinding("1,5,2,6")
+                .build()) {
+            eventGroup.cpuLayout(layout);
+
+            assertEquals(new TreeSet<>(Arrays.asList("0", "2")), concLoopsFor(eventGroup, 0));
+            assertEquals(new TreeSet<>(Arrays.asList("1", "3")), concLoopsFor(eventGroup, 1));
+            // no loop is bound to socket 2, so these are spread across them all
+            assertEquals(new TreeSet<>(Arrays.asList("0", "1", "2", "3")), concLoopsFor(eventGroup, 2));
+        }
+    }
+
+    private static Set<String> concLoopsFor(EventGroup eventGroup, int socket) {
+        final Set<String> loops = new TreeSet<>();
+        for (int i = 0; i < 4; i++)
+            loops.add(concLoopIndex(eventGroup.eventLoopFor(new SocketPreferenceHandler(socket))));
+        return loops;
+    }
+
+    private static String concLoopIndex(EventLoop eventLoop) {
+        final String name = eventLoop.name();
+        return name.substring(name.lastIndexOf("conc-event-loop-") + "conc-event-loop-".length());
+    }
+
+    static final class SocketPreferenceHandler implements EventHandler, SocketPreference {
+        private final int socket;
+
+        SocketPreferenceHandler(int socket) {
+            this.socket = socket;
+        }
+
+        @Override
+        public boolean action() {
+            return false;
+        }
+
+        @Override
+        public int preferredSocket() {
+            return socket;
+        }
+
+        @Override
+        public @NotNull HandlerPriority priority() {
+            return HandlerPriority.CONCURRENT;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2016-2022 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.threads;
+
+import net.openhft.chronicle.core.threads.HandlerPriority;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static net.openhft.chronicle.core.io.Closeable.closeQuietly;
+
+/**
+ * Measures the time to construct and start event groups, as services which create dozens of groups see at startup.
+ * An event group only starts the threads of its core and monitor event loops once it is given a handler, so that cost
+ * is measured separately as the time to add the first handler.
+ */
+public final class EventGroupStartBenchmark {
+
+    public static void main(String[] args) {
+        final int groups = Integer.getInteger("groups", 50);
+        for (int t = 0; t < 5; t++) {
+            final List<EventGroup> eventGroups = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int i = 0; i < groups; i++)
+                eventGroups.add(EventGroup.builder()
+                        .withName("bench-" + i)
+                        .withPriorities(HandlerPriority.MEDIUM, HandlerPriority.MONITOR, HandlerPriority.BLOCKING,
+                                HandlerPriority.REPLICATION, HandlerPriority.CONCURRENT)
+                        .withCoreShards(2)
+                        .build());
+            long constructed = System.nanoTime();
+            for (EventGroup eventGroup : eventGroups)
+                eventGroup.start();
+            long started = System.nanoTime();
+            for (EventGroup eventGroup : eventGroups)
+                eventGroup.addHandler(() -> false);
+            long handled = System.nanoTime();
+            closeQuietly(eventGroups);
+            long closed = System.nanoTime();
+            System.out.printf("Average per group: construct %,d us, start %,d us, first handler %,d us, close %,d us%n",
+                    (constructed - start) / groups / 1000,
+                    (started - constructed) / groups / 1000,
+                    (handled - started) / groups / 1000,
+                    (closed - handled) / groups / 1000);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2016-2022 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.threads;
+
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.core.threads.EventHandler;
+import net.openhft.chronicle.core.threads.EventLoop;
+import net.openhft.chronicle.core.threads.HandlerPriority;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.EnumSet;
+
+/**
+ * Measures the time to stop and then close an event group with a handler for every priority, as seen on a rolling restart.
+ */
+public final class EventGroupStopBenchmark {
+
+    public static void main(String[] args) {
+        for (int t = 0; t < 10; t++) {
+            final EventLoop eventGroup = EventGroup.builder()
+                    .withName("stop-bench")
+                    .withPriorities(EnumSet.allOf(HandlerPriority.class))
+                    .withConcurrentThreadsNum(2)
+                    .build();
+            for (HandlerPriority priority : HandlerPriority.values())
+                for (int i = 0; i < 4; i++)
+                    eventGroup.addHandler(new IdleHandler(priority));
+            eventGroup.start();
+            // let the pausers back off to their longest pause
+            Jvm.pause(200);
+
+            long start = System.nanoTime();
+            eventGroup.stop();
+            long stopped = System.nanoTime();
+            eventGroup.close();
+            long closed = System.nanoTime();
+            System.out.printf("stop %,d us, close %,d us%n",
+                    (stopped - start) / 1000,
+                    (closed - stopped) / 1000);
+        }
+    }
+
+    static final class IdleHandler implements EventHandler {
+        private final HandlerPriority priority;
+
+        IdleHandler(HandlerPriority priority) {
+            this.priority = priority;
+        }
+
+        @Override
+        public boolean action() {
+            return false;
+        }
+
+        @Override
+        public @NotNull HandlerPriority priority() {
+            return priority;
+        }
+    }
+}
@@ -173,6 +173,18 @@ public class EventGroupTest extends ThreadsTestCommon {
         assertTrue(eventGroup.isStopped());
     }
 
+    @Timeout(10)
+    @Test
+    public void startReturnsOnceTheCoreLoopHasWarmedUpEvenIfThatTakesLongerThanStarting() {
+        final AtomicInteger warmUps = new AtomicInteger();
+        try (final EventLoop eventGroup = EventGroup.builder().withWarmUpIterations(50).build()) {
+            eventGroup.addHandler(new SlowWarmUpHandler(warmUps));
+            // 50 x 50 ms is more than the 2 seconds allowed for the core loop to start
+            eventGroup.start();
+            assertEquals(50, warmUps.get());
+        }
+    }
+
     @Timeout(5)
     @Test
     public void checkNoThreadsCreatedIfEventGroupNotStarted() {
@@ -708,4 +720,23 @@ public class EventGroupTest extends ThreadsTestCommon {
                     '}';
         }
     }
+
+    static class SlowWarmUpHandler implements EventHandler, WarmUpHandler {
+        private final AtomicInteger warmUps;
+
+        SlowWarmUpHandler(AtomicInteger warmUps) {
+            this.warmUps = warmUps;
+        }
+
+        @Override
+        public void warmUp() {
+            Jvm.pause(50);
+            warmUps.incrementAndGet();
+        }
+
+        @Override
+        public boolean action() {
+            return false;
+        }
+    }
 }
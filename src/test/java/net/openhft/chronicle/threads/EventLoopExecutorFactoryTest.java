@@ -0,0 +1,121 @@
+/*
+ * Copyright 2016-2022 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.threads;
+
+import net.openhft.chronicle.core.threads.HandlerPriority;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventLoopExecutorFactoryTest extends ThreadsTestCommon {
+
+    @Test
+    void tasksRunOnTheEventLoop() throws Exception {
+        try (MediumEventLoop eventLoop = new MediumEventLoop(null, "executor-loop", Pauser.balanced(), true, "none")) {
+            eventLoop.start();
+            final ExecutorService service = new EventLoopExecutorFactory(eventLoop, HandlerPriority.MEDIUM)
+                    .acquireExecutorService("test", 1, true);
+            final Future<Thread> thread = service.submit(Thread::currentThread);
+            // the loop's thread is only known once it is running
+            final Thread ranOn = thread.get(5, TimeUnit.SECONDS);
+            assertSame(eventLoop.thread(), ranOn);
+
+            service.shutdown();
+            assertTrue(service.awaitTermination(5, TimeUnit.SECONDS));
+            assertThrows(RejectedExecutionException.class, () -> service.execute(() -> {
+            }));
+        }
+    }
+
+    @Test
+    void scheduledTasksRun() throws Exception {
+        try (MediumEventLoop eventLoop = new MediumEventLoop(null, "scheduled-loop", Pauser.balanced(), true, "none")) {
+            eventLoop.start();
+            final ScheduledExecutorService service = new EventLoopExecutorFactory(eventLoop, HandlerPriority.MEDIUM)
+                    .acquireScheduledExecutorService("test", true);
+            final ScheduledFuture<String> once = service.schedule(() -> "done", 10, TimeUnit.MILLISECONDS);
+            final CountDownLatch ticks = new CountDownLatch(3);
+            final ScheduledFuture<?> periodic = service.scheduleAtFixedRate(ticks::countDown, 0, 5, TimeUnit.MILLISECONDS);
+
+            assertEquals("done", once.get(5, TimeUnit.SECONDS));
+            assertTrue(ticks.await(5, TimeUnit.SECONDS));
+            periodic.cancel(false);
+
+            service.shutdown();
+            assertTrue(service.awaitTermination(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void queuedTasksRunBeforeTermination() throws Exception {
+        try (MediumEventLoop eventLoop = new MediumEventLoop(null, "queued-loop", Pauser.balanced(), true, "none")) {
+            final ExecutorService service = new EventLoopExecutorFactory(eventLoop, HandlerPriority.MEDIUM)
+                    .acquireExecutorService("test", 2, true);
+            final AtomicInteger count = new AtomicInteger();
+            for (int i = 0; i < 10; i++)
+                service.execute(count::incrementAndGet);
+            service.shutdown();
+            eventLoop.start();
+            assertTrue(service.awaitTermination(5, TimeUnit.SECONDS));
+            assertEquals(10, count.get());
+        }
+    }
+
+    @Test
+    void terminatesWhenTheLoopNeverStarts() throws Exception {
+        try (MediumEventLoop eventLoop = new MediumEventLoop(null, "unstarted-loop", Pauser.balanced(), true, "none")) {
+            final ExecutorService service = new EventLoopExecutorFactory(eventLoop, HandlerPriority.MEDIUM)
+                    .acquireExecutorService("test", 2, true);
+            service.shutdown();
+            assertTrue(service.awaitTermination(1, TimeUnit.SECONDS));
+            assertTrue(service.isTerminated());
+        }
+    }
+
+    @Test
+    void terminatesWhenTheLoopHasAlreadyStopped() throws Exception {
+        final ExecutorService service;
+        try (MediumEventLoop eventLoop = new MediumEventLoop(null, "stopped-loop", Pauser.balanced(), true, "none")) {
+            service = new EventLoopExecutorFactory(eventLoop, HandlerPriority.MEDIUM)
+                    .acquireExecutorService("test", 1, true);
+            service.execute(() -> {
+            });
+        }
+        service.shutdown();
+        assertTrue(service.awaitTermination(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shutdownWakesALoopWhichIsPausing() throws Exception {
+        try (MediumEventLoop eventLoop = new MediumEventLoop(null, "sleepy-loop", Pauser.millis(2_000), true, "none")) {
+            eventLoop.start();
+            final ExecutorService service = new EventLoopExecutorFactory(eventLoop, HandlerPriority.MEDIUM)
+                    .acquireExecutorService("test", 1, true);
+            service.submit(() -> {
+            }).get(5, TimeUnit.SECONDS);
+            // let the loop go back to its pauser
+            Thread.sleep(50);
+            service.shutdown();
+            assertTrue(service.awaitTermination(1, TimeUnit.SECONDS));
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2016-2022 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.threads;
+
+import net.openhft.chronicle.testframework.Waiters;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventLoopFlowTest extends ThreadsTestCommon {
+
+    @Test
+    void publisherDeliversOnTheEventLoopAsRequested() {
+        try (MediumEventLoop eventLoop = new MediumEventLoop(null, "flow", Pauser.balanced(), true, "none")) {
+            eventLoop.start();
+            final EventLoopFlow.RingPublisher<Integer> publisher = EventLoopFlow.publisher(eventLoop, 8);
+            // items are buffered until there is a subscriber
+            for (int i = 0; i < 8; i++)
+                assertTrue(publisher.publish(i));
+            // the ring is full
+            assertFalse(publisher.publish(8));
+            final RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<>(3);
+            publisher.subscribe(subscriber);
+
+            Waiters.waitForCondition("Wait for the requested items", () -> subscriber.items.size() == 3, 5_000);
+            assertEquals(eventLoop.thread(), subscriber.thread);
+
+            subscriber.subscription.request(10);
+            publisher.complete();
+            Waiters.waitForCondition("Wait for completion", () -> subscriber.completed, 5_000);
+            assertEquals(8, subscriber.items.size());
+            assertEquals(7, (int) subscriber.items.get(7));
+            assertNull(subscriber.error);
+        }
+    }
+
+    @Test
+    void secondSubscriberIsSentAnError() {
+        try (MediumEventLoop eventLoop = new MediumEventLoop(null, "flow", Pauser.balanced(), true, "none")) {
+            final EventLoopFlow.RingPublisher<Integer> publisher = EventLoopFlow.publisher(eventLoop, 8);
+            publisher.subscribe(new RecordingSubscriber<>(1));
+            final RecordingSubscriber<Integer> second = new RecordingSubscriber<>(1);
+            publisher.subscribe(second);
+            assertTrue(second.error instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    void subscriberNeverRequestsMoreThanItCanBuffer() {
+        try (MediumEventLoop eventLoop = new MediumEventLoop(null, "flow", Pauser.balanced(), true, "none")) {
+            eventLoop.start();
+            final RecordingSubscriber<Integer> downstream = new RecordingSubscriber<>(Long.MAX_VALUE);
+            final EventLoopFlow.Subscriber<Integer> subscriber = EventLoopFlow.subscriber(eventLoop, downstream, 16);
+            final AtomicLong requested = new AtomicLong();
+            subscriber.onSubscribe(new EventLoopFlow.Subscription() {
+                @Override
+                public void request(long n) {
+                    requested.addAndGet(n);
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            assertEquals(16, requested.get());
+
+            // act as the upstream publisher, sending no more than requested
+            int sent = 0;
+            while (sent < 1_000) {
+                if (sent < requested.get())
+                    subscriber.onNext(sent++);
+                else
+                    Thread.yield();
+                assertTrue(requested.get() - downstream.items.size() <= 16);
+            }
+            subscriber.onComplete();
+            Waiters.waitForCondition("Wait for completion", () -> downstream.completed, 5_000);
+            assertEquals(1_000, downstream.items.size());
+            assertEquals(eventLoop.thread(), downstream.thread);
+        }
+    }
+
+    @Test
+    void subscriberIsSentAnErrorIfSentMoreThanRequested() {
+        try (MediumEventLoop eventLoop = new MediumEventLoop(null, "flow", Pauser.balanced(), true, "none")) {
+            eventLoop.start();
+            final RecordingSubscriber<Integer> downstream = new RecordingSubscriber<>(0);
+            final EventLoopFlow.Subscriber<Integer> subscriber = EventLoopFlow.subscriber(eventLoop, downstream, 2);
+            final boolean[] cancelled = {false};
+            subscriber.onSubscribe(new EventLoopFlow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                    cancelled[0] = true;
+                }
+            });
+            for (int i = 0; i < 3; i++)
+                subscriber.onNext(i);
+            Waiters.waitForCondition("Wait for the error", () -> downstream.error != null, 5_000);
+            assertTrue(downstream.error instanceof IllegalStateException);
+            assertTrue(downstream.items.isEmpty());
+            Waiters.waitForCondition("Wait for upstream to be cancelled", () -> cancelled[0], 5_000);
+        }
+    }
+
+    static final class RecordingSubscriber<T> implements EventLoopFlow.Subscriber<T> {
+        final List<T> items = new CopyOnWriteArrayList<>();
+        private final long initialRequest;
+        volatile EventLoopFlow.Subscription subscription;
+        volatile Thread thread;
+        volatile boolean completed;
+        volatile Throwable error;
+
+        RecordingSubscriber(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        public void onSubscribe(EventLoopFlow.Subscription subscription) {
+            this.subscription = subscription;
+            if (initialRequest > 0)
+                subscription.request(initialRequest);
+        }
+
+        @Override
+        public void onNext(T item) {
+            thread = Thread.currentThread();
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}
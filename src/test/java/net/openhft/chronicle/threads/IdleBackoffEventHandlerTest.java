@@ -0,0 +1,94 @@
+/*
+ * Copyright 2016-2022 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.threads;
+
+import net.openhft.chronicle.core.threads.EventHandler;
+import net.openhft.chronicle.core.threads.InvalidEventHandlerException;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdleBackoffEventHandlerTest extends ThreadsTestCommon {
+
+    @Test
+    void idleHandlerIsCalledLessOftenUntilItIsBusy() throws InvalidEventHandlerException {
+        final CountingHandler handler = new CountingHandler();
+        final IdleBackoffEventHandler backoff = new IdleBackoffEventHandler(handler, TimeUnit.SECONDS.toNanos(10));
+        for (int i = 0; i < IdleBackoffEventHandler.IDLE_CALLS; i++)
+            assertFalse(backoff.action());
+        assertEquals(IdleBackoffEventHandler.IDLE_CALLS, handler.calls);
+        assertEquals(IdleBackoffEventHandler.MIN_BACKOFF_NS, backoff.backoffNS());
+
+        // backs off by doubling each time it is called and still idle
+        long start = System.nanoTime();
+        while (handler.calls < IdleBackoffEventHandler.IDLE_CALLS + 10)
+            assertFalse(backoff.action());
+        assertTrue(System.nanoTime() - start >= IdleBackoffEventHandler.MIN_BACKOFF_NS * ((1 << 10) - 2));
+        assertEquals(IdleBackoffEventHandler.MIN_BACKOFF_NS << 10, backoff.backoffNS());
+
+        // snaps back once it is busy
+        handler.busy = true;
+        while (!backoff.action()) {
+            // wait for the back off
+        }
+        assertEquals(0, backoff.backoffNS());
+        final int calls = handler.calls;
+        assertTrue(backoff.action());
+        assertEquals(calls + 1, handler.calls);
+    }
+
+    @Test
+    void wakeCallsTheHandlerStraightAway() throws InvalidEventHandlerException {
+        final CountingHandler handler = new CountingHandler();
+        final IdleBackoffEventHandler backoff = new IdleBackoffEventHandler(handler, TimeUnit.SECONDS.toNanos(10));
+        for (int i = 0; i < IdleBackoffEventHandler.IDLE_CALLS + 20; i++)
+            backoff.action();
+        final int calls = handler.calls;
+        assertFalse(backoff.action());
+        assertEquals(calls, handler.calls);
+
+        backoff.wake();
+        handler.busy = true;
+        assertTrue(backoff.action());
+        assertEquals(calls + 1, handler.calls);
+        assertEquals(0, backoff.backoffNS());
+    }
+
+    @Test
+    void backOffIsLimitedToTheMaxInterval() throws InvalidEventHandlerException {
+        final CountingHandler handler = new CountingHandler();
+        final IdleBackoffEventHandler backoff = new IdleBackoffEventHandler(handler, 5_000);
+        final long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(10);
+        while (System.nanoTime() < end)
+            backoff.action();
+        assertEquals(5_000, backoff.backoffNS());
+    }
+
+    static final class CountingHandler implements EventHandler {
+        int calls;
+        boolean busy;
+
+        @Override
+        public boolean action() {
+            calls++;
+            return busy;
+        }
+    }
+}
@@ -18,16 +18,20 @@
 
 package net.openhft.chronicle.threads;
 
+import net.openhft.chronicle.core.Jvm;
 import net.openhft.chronicle.core.io.InvalidMarshallableException;
 import net.openhft.chronicle.core.threads.EventHandler;
 import net.openhft.chronicle.core.threads.HandlerPriority;
 import net.openhft.chronicle.core.threads.InvalidEventHandlerException;
 import net.openhft.chronicle.testframework.ExecutorServiceUtil;
 import net.openhft.chronicle.testframework.Waiters;
+import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
 
 import java.util.Objects;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.IntStream;
 
 import static net.openhft.chronicle.threads.TestEventHandlers.*;
@@ -298,6 +302,167 @@ class MediumEventLoopTest extends ThreadsTestCommon {
         ExecutorServiceUtil.shutdownAndWaitForTermination(es);
     }
 
+    @Test
+    void handlersAreWarmedUpBeforeTheirFirstAction() throws InterruptedException {
+        try (MediumEventLoop eventLoop = new MediumEventLoop(null, "warm-up", Pauser.balanced(), true, "none")) {
+            eventLoop.warmUpIterations(1_000);
+            final int[] warmUps = {0};
+            final int[] warmUpsBeforeAction = {-1};
+            final CountDownLatch acted = new CountDownLatch(1);
+            eventLoop.addHandler(new WarmUpEventHandler(warmUps, warmUpsBeforeAction, acted));
+            eventLoop.addHandler(new NoOpHandler());
+            eventLoop.start();
+            assertTrue(acted.await(5, TimeUnit.SECONDS));
+            assertEquals(1_000, warmUpsBeforeAction[0]);
+        }
+    }
+
+    @Test
+    void noActionIsCalledWhileWarmingUpEvenIfAHandlerIsAdded() throws InterruptedException {
+        try (MediumEventLoop eventLoop = new MediumEventLoop(null, "warm-up-add", Pauser.balanced(), true, "none")) {
+            eventLoop.warmUpIterations(1_000);
+            final int[] warmUps = {0};
+            final int[] warmUpsBeforeAction = {-1};
+            final CountDownLatch acted = new CountDownLatch(1);
+            eventLoop.addHandler(new AddingWarmUpHandler(eventLoop, warmUps));
+            eventLoop.addHandler(new WarmUpEventHandler(new int[1], warmUpsBeforeAction, acted) {
+                @Override
+                public boolean action() throws InvalidEventHandlerException {
+                    warmUpsBeforeAction[0] = warmUps[0];
+                    acted.countDown();
+                    throw InvalidEventHandlerException.reusable();
+                }
+            });
+            eventLoop.start();
+            assertTrue(acted.await(5, TimeUnit.SECONDS));
+            assertEquals(1_000, warmUpsBeforeAction[0]);
+        }
+    }
+
+    @Test
+    void loopIsSaturatedOnlyWhileItHasNoIdleIterations() {
+        try (MediumEventLoop eventLoop = new MediumEventLoop(null, "saturation", Pauser.balanced(), true, "none")) {
+            eventLoop.saturationMS(50);
+            final AtomicBoolean busy = new AtomicBoolean(true);
+            eventLoop.addHandler(new EventHandler() {
+                @Override
+                public boolean action() {
+                    return busy.get();
+                }
+            });
+            assertFalse(eventLoop.isSaturated());
+            eventLoop.start();
+            Waiters.waitForCondition("Wait for the loop to be saturated", eventLoop::isSaturated, 5_000);
+            Waiters.waitForCondition("Wait for the duty cycle", () -> eventLoop.dutyCycle() > 0.9, 5_000);
+
+            busy.set(false);
+            Waiters.waitForCondition("Wait for the loop to be idle", () -> !eventLoop.isSaturated(), 5_000);
+            Waiters.waitForCondition("Wait for the duty cycle to drop", () -> eventLoop.dutyCycle() < 0.1, 5_000);
+        }
+    }
+
+    @Test
+    void loopPausingForLongerThanTheSaturationPeriodIsNotSaturated() {
+        try (MediumEventLoop eventLoop = new MediumEventLoop(null, "idle", Pauser.millis(100), true, "none")) {
+            eventLoop.saturationMS(10);
+            final AtomicInteger actions = new AtomicInteger();
+            eventLoop.addHandler(() -> {
+                actions.incrementAndGet();
+                return false;
+            });
+            eventLoop.start();
+            final long end = System.currentTimeMillis() + 350;
+            while (System.currentTimeMillis() < end) {
+                assertFalse(eventLoop.isSaturated());
+                Jvm.pause(1);
+            }
+            assertTrue(actions.get() > 1);
+        }
+    }
+
+    @Test
+    void mediumHandlerCanYieldToTheHighHandler() throws InterruptedException {
+        try (MediumEventLoop eventLoop = new MediumEventLoop(null, "yield", Pauser.balanced(), true, "none")) {
+            final AtomicInteger highCalls = new AtomicInteger();
+            final AtomicInteger highCallsDuringBatch = new AtomicInteger(-1);
+            final CountDownLatch batched = new CountDownLatch(1);
+            eventLoop.addHandler(new EventHandler() {
+                @Override
+                public boolean action() {
+                    highCalls.incrementAndGet();
+                    return false;
+                }
+
+                @Override
+                public @NotNull HandlerPriority priority() {
+                    return HandlerPriority.HIGH;
+                }
+            });
+            eventLoop.addHandler(new EventHandler() {
+                @Override
+                public boolean action() throws InvalidEventHandlerException {
+                    final int before = highCalls.get();
+                    for (int i = 0; i < 100; i++)
+                        EventLoops.yieldToHigh(eventLoop);
+                    highCallsDuringBatch.set(highCalls.get() - before);
+                    batched.countDown();
+                    throw InvalidEventHandlerException.reusable();
+                }
+            });
+            assertFalse(eventLoop.yieldToHigh());
+            eventLoop.start();
+            assertTrue(batched.await(5, TimeUnit.SECONDS));
+            assertEquals(100, highCallsDuringBatch.get());
+            // only on the event loop thread
+            assertFalse(eventLoop.yieldToHigh());
+        }
+    }
+
+    private static class WarmUpEventHandler implements EventHandler, WarmUpHandler {
+        private final int[] warmUps;
+        private final int[] warmUpsBeforeAction;
+        private final CountDownLatch acted;
+
+        WarmUpEventHandler(int[] warmUps, int[] warmUpsBeforeAction, CountDownLatch acted) {
+            this.warmUps = warmUps;
+            this.warmUpsBeforeAction = warmUpsBeforeAction;
+            this.acted = acted;
+        }
+
+        @Override
+        public void warmUp() {
+            warmUps[0]++;
+        }
+
+        @Override
+        public boolean action() throws InvalidEventHandlerException {
+            warmUpsBeforeAction[0] = warmUps[0];
+            acted.countDown();
+            throw InvalidEventHandlerException.reusable();
+        }
+    }
+
+    private static class AddingWarmUpHandler implements EventHandler, WarmUpHandler {
+        private final MediumEventLoop eventLoop;
+        private final int[] warmUps;
+
+        AddingWarmUpHandler(MediumEventLoop eventLoop, int[] warmUps) {
+            this.eventLoop = eventLoop;
+            this.warmUps = warmUps;
+        }
+
+        @Override
+        public void warmUp() {
+            if (warmUps[0]++ == 0)
+                eventLoop.addHandler(new NoOpHandler());
+        }
+
+        @Override
+        public boolean action() {
+            return false;
+        }
+    }
+
     private static class NoOpHandler implements EventHandler {
 
         @Override
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2016-2022 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.threads;
+
+import net.openhft.chronicle.core.threads.EventHandler;
+import net.openhft.chronicle.core.threads.HandlerPriority;
+import net.openhft.chronicle.core.threads.InvalidEventHandlerException;
+import net.openhft.chronicle.threads.internal.EventLoopThreadHolder;
+import net.openhft.chronicle.threads.internal.ThreadMonitorHarness;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MonitorEventLoopTest extends ThreadsTestCommon {
+
+    @BeforeEach
+    void noInitialDelay() {
+        MonitorEventLoop.MONITOR_INITIAL_DELAY_MS = 0;
+    }
+
+    @AfterEach
+    void restoreInitialDelay() {
+        MonitorEventLoop.MONITOR_INITIAL_DELAY_MS = 10_000;
+    }
+
+    @Test
+    void timedHandlersOnlyRunWhenDue() throws InterruptedException {
+        final List<String> calls = Collections.synchronizedList(new ArrayList<>());
+        try (MonitorEventLoop eventLoop = new MonitorEventLoop(null, "timed~monitor", Pauser.millis(1))) {
+            eventLoop.addHandler(new EveryHandler("slow", 60, calls));
+            eventLoop.addHandler(new EveryHandler("fast", 25, calls));
+            eventLoop.start();
+            Thread.sleep(200);
+        }
+        final long fast = calls.stream().filter("fast"::equals).count();
+        final long slow = calls.stream().filter("slow"::equals).count();
+        // at time 0, 25, 50, 75 ... and 0, 60, 120, 180, allowing for a slow machine
+        assertTrue(fast >= 4 && fast <= 10, "fast=" + fast);
+        assertTrue(slow >= 2 && slow <= 5, "slow=" + slow);
+    }
+
+    @Test
+    void polledHandlersStillRunEveryTick() throws InterruptedException {
+        final AtomicInteger polled = new AtomicInteger();
+        final List<String> calls = Collections.synchronizedList(new ArrayList<>());
+        try (MonitorEventLoop eventLoop = new MonitorEventLoop(null, "polled~monitor", Pauser.millis(1))) {
+            eventLoop.addHandler(new EventHandler() {
+                @Override
+                public boolean action() {
+                    polled.incrementAndGet();
+                    return false;
+                }
+
+                @Override
+                public @NotNull HandlerPriority priority() {
+                    return HandlerPriority.MONITOR;
+                }
+            });
+            eventLoop.addHandler(new EveryHandler("timed", 1_000, calls));
+            eventLoop.start();
+            Thread.sleep(100);
+        }
+        assertTrue(polled.get() > 20, "polled=" + polled.get());
+        assertEquals(1, calls.size());
+    }
+
+    @Test
+    void threadMonitorOfAnIdleLoopIsCheckedAtItsMonitorInterval() throws InterruptedException {
+        final AtomicInteger checks = new AtomicInteger();
+        try (MediumEventLoop monitored = new MediumEventLoop(null, "monitored", Pauser.millis(1), true, "none");
+             MonitorEventLoop eventLoop = new MonitorEventLoop(null, "harness~monitor", Pauser.millis(1))) {
+            monitored.start();
+            eventLoop.addHandler(new ThreadMonitorHarness(new EventLoopThreadHolder(TimeUnit.MILLISECONDS.toNanos(100), monitored)) {
+                @Override
+                public boolean action() throws InvalidEventHandlerException {
+                    checks.incrementAndGet();
+                    return super.action();
+                }
+            });
+            eventLoop.start();
+            Thread.sleep(300);
+        }
+        // at time 0, 100, 200 and maybe 300 rather than on every 1 ms tick, allowing for a slow machine
+        assertTrue(checks.get() >= 2 && checks.get() <= 6, "checks=" + checks.get());
+    }
+
+    static final class EveryHandler implements ScheduledMonitorHandler {
+        private final String name;
+        private final long periodNS;
+        private final List<String> calls;
+        private long nextNS;
+
+        EveryHandler(String name, long periodMS, List<String> calls) {
+            this.name = name;
+            this.periodNS = TimeUnit.MILLISECONDS.toNanos(periodMS);
+            this.calls = calls;
+        }
+
+        @Override
+        public boolean action() {
+            calls.add(name);
+            nextNS = System.nanoTime() + periodNS;
+            return false;
+        }
+
+        @Override
+        public long nextActionNS() {
+            return nextNS;
+        }
+
+        @Override
+        public @NotNull HandlerPriority priority() {
+            return HandlerPriority.MONITOR;
+        }
+    }
+}
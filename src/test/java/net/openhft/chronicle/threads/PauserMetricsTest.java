@@ -0,0 +1,95 @@
+/*
+ * Copyright 2016-2022 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.threads;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PauserMetricsTest extends ThreadsTestCommon {
+
+    private static final long SECOND_NS = 1_000_000_000L;
+
+    @Test
+    void rollingWindowOfPauserMetrics() {
+        final CountingPauser pauser = new CountingPauser();
+        final PauserMetrics metrics = new PauserMetrics(1_000, 4);
+        metrics.add("core", pauser);
+        assertEquals(1, metrics.size());
+        assertEquals("core", metrics.name(0));
+
+        // each second, paused for 250 ms in 1000 pauses, then for 500 ms in 100 pauses
+        metrics.sample(0);
+        for (int i = 1; i <= 8; i++)
+            pauseFor(metrics, pauser, i, i <= 4 ? 250 : 500, i <= 4 ? 1000 : 100);
+
+        final PauserMetrics.Stats stats = new PauserMetrics.Stats();
+        assertTrue(metrics.read(0, stats));
+        // the window only has the last 4 seconds
+        assertEquals(4_000, stats.windowMS());
+        assertEquals(50.0, stats.busyPercent(), 1e-9);
+        assertEquals(400, stats.pauseCount());
+        assertEquals(100.0, stats.wakeupsPerSecond(), 1e-9);
+        assertEquals(5_000.0, stats.averagePauseUS(), 1e-9);
+        assertEquals(5_000.0, stats.p99PauseUS(), 1e-9);
+
+        // half the window at each rate
+        pauseFor(metrics, pauser, 9, 250, 1000);
+        pauseFor(metrics, pauser, 10, 250, 1000);
+        assertTrue(metrics.read(0, stats));
+        assertEquals(250.0, stats.p50PauseUS(), 1e-9);
+        assertEquals(5_000.0, stats.p90PauseUS(), 1e-9);
+        assertEquals(5_000.0, stats.maxPauseUS(), 1e-9);
+
+        assertFalse(metrics.read(1, stats));
+    }
+
+    private static void pauseFor(PauserMetrics metrics, CountingPauser pauser, int second, long pausedMS, long pauses) {
+        pauser.timePaused += pausedMS;
+        pauser.countPaused += pauses;
+        metrics.sample(second * SECOND_NS);
+    }
+
+    static final class CountingPauser implements Pauser {
+        long timePaused;
+        long countPaused;
+
+        @Override
+        public void pause() {
+        }
+
+        @Override
+        public void reset() {
+        }
+
+        @Override
+        public void unpause() {
+        }
+
+        @Override
+        public long timePaused() {
+            return timePaused;
+        }
+
+        @Override
+        public long countPaused() {
+            return countPaused;
+        }
+    }
+}
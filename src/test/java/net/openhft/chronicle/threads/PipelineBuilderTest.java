@@ -0,0 +1,147 @@
+/*
+ * Copyright 2016-2022 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.threads;
+
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.testframework.Waiters;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PipelineBuilderTest extends ThreadsTestCommon {
+
+    @Test
+    void eventsPassThroughEachStageInOrder() {
+        try (MediumEventLoop first = new MediumEventLoop(null, "first", Pauser.balanced(), true, "none");
+             MediumEventLoop second = new MediumEventLoop(null, "second", Pauser.balanced(), true, "none")) {
+            final List<String> received = Collections.synchronizedList(new ArrayList<>());
+            final PipelinePublisher<Integer> publisher = PipelineBuilder.<Integer>builder()
+                    .withName("test")
+                    .withCapacity(8)
+                    .stage(first, (Integer i, PipelinePublisher<String> out) -> out.publish("event-" + i))
+                    .stage(second, (String s, PipelinePublisher<Void> out) -> received.add(s))
+                    .build();
+            first.start();
+            second.start();
+
+            for (int i = 0; i < 100; i++) {
+                while (!publisher.publish(i))
+                    Thread.yield();
+            }
+            Waiters.waitForCondition("all events received", () -> received.size() == 100, 5000);
+            for (int i = 0; i < 100; i++)
+                assertEquals("event-" + i, received.get(i));
+        }
+    }
+
+    @Test
+    void parkedStageIsWokenByEachEvent() {
+        // a stage which misses a wake up waits for the whole pause
+        try (MediumEventLoop loop = new MediumEventLoop(null, "parked", Pauser.millis(500), true, "none")) {
+            final AtomicLong received = new AtomicLong(-1);
+            final PipelinePublisher<Long> publisher = PipelineBuilder.<Long>builder()
+                    .stage(loop, (Long i, PipelinePublisher<Void> out) -> {
+                        received.set(i);
+                        return true;
+                    })
+                    .build();
+            loop.start();
+
+            long worstNS = 0;
+            for (long i = 0; i < 2_000; i++) {
+                // vary when the event arrives relative to the stage finding the ring empty
+                final long spinUntil = System.nanoTime() + ThreadLocalRandom.current().nextInt(5_000);
+                while (System.nanoTime() < spinUntil) {
+                    // busy wait
+                }
+                final long start = System.nanoTime();
+                assertTrue(publisher.publish(i));
+                while (received.get() != i)
+                    Thread.yield();
+                worstNS = Math.max(worstNS, System.nanoTime() - start);
+            }
+            assertTrue(worstNS < TimeUnit.MILLISECONDS.toNanos(250), "worst delivery took " + worstNS / 1000 + " us");
+        }
+    }
+
+    @Test
+    void backpressuredStageResumesWhenTheNextStageFreesSpace() {
+        // a stage which isn't woken when space is freed waits for the whole pause
+        try (MediumEventLoop first = new MediumEventLoop(null, "held-back", Pauser.millis(500), true, "none");
+             MediumEventLoop second = new MediumEventLoop(null, "gated", Pauser.balanced(), true, "none")) {
+            final AtomicLong heldBack = new AtomicLong();
+            final AtomicLong received = new AtomicLong();
+            final AtomicBoolean open = new AtomicBoolean();
+            final PipelinePublisher<Integer> publisher = PipelineBuilder.<Integer>builder()
+                    .withCapacity(4)
+                    .stage(first, (Integer i, PipelinePublisher<Integer> out) -> {
+                        if (out.publish(i))
+                            return true;
+                        heldBack.incrementAndGet();
+                        return false;
+                    })
+                    .stage(second, (Integer i, PipelinePublisher<Void> out) -> open.get() && received.incrementAndGet() > 0)
+                    .build();
+            first.start();
+            second.start();
+
+            // fills the second stage's ring, leaving the first stage holding the fifth event
+            for (int i = 0; i < 5; i++) {
+                while (!publisher.publish(i))
+                    Thread.yield();
+            }
+            Waiters.waitForCondition("first stage held back", () -> heldBack.get() > 0, 5000);
+            // let it pause
+            Jvm.pause(50);
+
+            final long start = System.nanoTime();
+            open.set(true);
+            Waiters.waitForCondition("all events received", () -> received.get() == 5, 5000);
+            final long tookNS = System.nanoTime() - start;
+            assertTrue(tookNS < TimeUnit.MILLISECONDS.toNanos(250), "resuming took " + tookNS / 1000 + " us");
+        }
+    }
+
+    @Test
+    void fullStageAppliesBackpressure() {
+        try (MediumEventLoop loop = new MediumEventLoop(null, "loop", Pauser.balanced(), true, "none")) {
+            final PipelinePublisher<Integer> publisher = PipelineBuilder.<Integer>builder()
+                    .withCapacity(2)
+                    .stage(loop, (Integer i, PipelinePublisher<Void> out) -> false)
+                    .build();
+            // the loop is not started, so nothing is consumed
+            assertTrue(publisher.publish(1));
+            assertTrue(publisher.publish(2));
+            assertFalse(publisher.publish(3));
+        }
+    }
+
+    @Test
+    void needsAStage() {
+        assertThrows(IllegalStateException.class, () -> PipelineBuilder.builder().build());
+    }
+}
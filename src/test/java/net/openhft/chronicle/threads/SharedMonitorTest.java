@@ -0,0 +1,156 @@
+/*
+ * Copyright 2016-2022 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.threads;
+
+import net.openhft.chronicle.core.threads.EventHandler;
+import net.openhft.chronicle.core.threads.HandlerPriority;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SharedMonitorTest extends ThreadsTestCommon {
+
+    @BeforeEach
+    void noInitialDelay() {
+        MonitorEventLoop.MONITOR_INITIAL_DELAY_MS = 0;
+    }
+
+    @AfterEach
+    void restoreInitialDelay() {
+        MonitorEventLoop.MONITOR_INITIAL_DELAY_MS = 10_000;
+    }
+
+    @Test
+    void groupsShareOneMonitorThread() throws InterruptedException {
+        final CountingHandler first = new CountingHandler();
+        final CountingHandler second = new CountingHandler();
+        try (EventGroup group1 = sharedMonitorGroup("shared-1");
+             EventGroup group2 = sharedMonitorGroup("shared-2")) {
+            group1.addHandler(first);
+            group2.addHandler(second);
+            Thread.sleep(50);
+            assertEquals(0, first.count.get(), "group1 hasn't started");
+
+            group1.start();
+            group2.start();
+            assertTrue(first.running.await(5, TimeUnit.SECONDS));
+            assertTrue(second.running.await(5, TimeUnit.SECONDS));
+            assertSame(first.thread, second.thread);
+            assertSame(group1, first.eventLoop);
+
+            group1.close();
+            assertTrue(first.finished.await(5, TimeUnit.SECONDS));
+            final int secondCount = second.count.get();
+            Thread.sleep(50);
+            assertTrue(second.count.get() > secondCount, "group2 is still monitored");
+        }
+        assertTrue(second.finished.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void closingAGroupRemovesItsHandlersBeforeTheyNextRun() throws InterruptedException {
+        final DistantDeadlineHandler distant = new DistantDeadlineHandler();
+        try (EventGroup group1 = sharedMonitorGroup("shared-1");
+             EventGroup group2 = sharedMonitorGroup("shared-2")) {
+            group1.addHandler(distant);
+            group1.start();
+            group2.start();
+            assertTrue(distant.running.await(5, TimeUnit.SECONDS));
+
+            // it isn't due again for an hour, but shouldn't keep group1 reachable until then
+            group1.close();
+            assertTrue(distant.finished.await(5, TimeUnit.SECONDS));
+            assertEquals(1, distant.count.get());
+        }
+    }
+
+    private static EventGroup sharedMonitorGroup(String name) {
+        return EventGroupBuilder.builder()
+                .withName(name)
+                .withPriorities(HandlerPriority.MEDIUM, HandlerPriority.MONITOR)
+                .withSharedMonitor(true)
+                .build();
+    }
+
+    static final class CountingHandler implements EventHandler {
+        final AtomicInteger count = new AtomicInteger();
+        final CountDownLatch running = new CountDownLatch(1);
+        final CountDownLatch finished = new CountDownLatch(1);
+        volatile Thread thread;
+        volatile Object eventLoop;
+
+        @Override
+        public void eventLoop(net.openhft.chronicle.core.threads.EventLoop eventLoop) {
+            this.eventLoop = eventLoop;
+        }
+
+        @Override
+        public boolean action() {
+            thread = Thread.currentThread();
+            count.incrementAndGet();
+            running.countDown();
+            return false;
+        }
+
+        @Override
+        public void loopFinished() {
+            finished.countDown();
+        }
+
+        @Override
+        public @NotNull HandlerPriority priority() {
+            return HandlerPriority.MONITOR;
+        }
+    }
+
+    static final class DistantDeadlineHandler implements ScheduledMonitorHandler {
+        final AtomicInteger count = new AtomicInteger();
+        final CountDownLatch running = new CountDownLatch(1);
+        final CountDownLatch finished = new CountDownLatch(1);
+
+        @Override
+        public boolean action() {
+            count.incrementAndGet();
+            running.countDown();
+            return false;
+        }
+
+        @Override
+        public long nextActionNS() {
+            return System.nanoTime() + TimeUnit.HOURS.toNanos(1);
+        }
+
+        @Override
+        public void loopFinished() {
+            finished.countDown();
+        }
+
+        @Override
+        public @NotNull HandlerPriority priority() {
+            return HandlerPriority.MONITOR;
+        }
+    }
+}
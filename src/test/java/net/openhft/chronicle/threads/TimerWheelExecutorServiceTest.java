@@ -0,0 +1,136 @@
+/*
+ * Copyright 2016-2022 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.threads;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimerWheelExecutorServiceTest extends ThreadsTestCommon {
+
+    @Test
+    void timeoutsRunUnlessCancelled() throws Exception {
+        final TimerWheelExecutorService service = new TimerWheelExecutorService("timer-test", TimeUnit.MILLISECONDS.toNanos(1), 64);
+        try {
+            final AtomicInteger ran = new AtomicInteger();
+            final CountDownLatch latch = new CountDownLatch(1);
+            final long cancelled = service.scheduleTimeout(ran::incrementAndGet, 20, TimeUnit.MILLISECONDS);
+            // further ahead than once around the wheel
+            service.scheduleTimeout(latch::countDown, 100, TimeUnit.MILLISECONDS);
+            assertTrue(service.cancelTimeout(cancelled));
+            assertFalse(service.cancelTimeout(cancelled));
+
+            final long start = System.nanoTime();
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(99));
+            assertEquals(0, ran.get());
+
+            // the timeout is reused, so the old handle can't cancel the new one
+            final long reused = service.scheduleTimeout(ran::incrementAndGet, 1, TimeUnit.MILLISECONDS);
+            assertNotEquals(cancelled, reused);
+            assertFalse(service.cancelTimeout(cancelled));
+        } finally {
+            service.shutdownNow();
+            assertTrue(service.awaitTermination(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void scheduledFutures() throws Exception {
+        final TimerWheelExecutorService service = new TimerWheelExecutorService("timer-test", TimeUnit.MILLISECONDS.toNanos(1), 64);
+        try {
+            assertEquals("done", service.schedule(() -> "done", 5, TimeUnit.MILLISECONDS).get(5, TimeUnit.SECONDS));
+            assertEquals("now", service.submit(() -> "now").get(5, TimeUnit.SECONDS));
+
+            final CountDownLatch latch = new CountDownLatch(3);
+            final ScheduledFuture<?> periodic = service.scheduleAtFixedRate(latch::countDown, 1, 2, TimeUnit.MILLISECONDS);
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertTrue(periodic.cancel(false));
+            assertTrue(periodic.isCancelled());
+
+            final ScheduledFuture<?> pending = service.schedule(() -> {
+            }, 1, TimeUnit.HOURS);
+            service.shutdown();
+            assertTrue(service.awaitTermination(5, TimeUnit.SECONDS));
+            assertTrue(pending.isCancelled());
+            assertThrows(RejectedExecutionException.class, () -> service.execute(() -> {
+            }));
+        } finally {
+            service.shutdownNow();
+        }
+    }
+
+    @Test
+    void longDelaysDontOverflow() throws Exception {
+        final TimerWheelExecutorService service = new TimerWheelExecutorService("timer-test", TimeUnit.MILLISECONDS.toNanos(1), 64);
+        try {
+            final AtomicInteger ran = new AtomicInteger();
+            final ScheduledFuture<?> never = service.schedule(ran::incrementAndGet, Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            service.scheduleTimeout(ran::incrementAndGet, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            service.scheduleAtFixedRate(ran::incrementAndGet, Long.MAX_VALUE, 1, TimeUnit.DAYS);
+            // a task which is run after these have been passed over
+            assertEquals("now", service.schedule(() -> "now", 20, TimeUnit.MILLISECONDS).get(5, TimeUnit.SECONDS));
+            assertEquals(0, ran.get());
+            assertTrue(never.getDelay(TimeUnit.DAYS) > 365L * 100);
+        } finally {
+            service.shutdownNow();
+        }
+    }
+
+    @Test
+    void shutdownRunsTheTasksAlreadyGivenToExecute() throws Exception {
+        final TimerWheelExecutorService service = new TimerWheelExecutorService("timer-test", TimeUnit.MILLISECONDS.toNanos(1), 64);
+        try {
+            final AtomicInteger ran = new AtomicInteger();
+            final CountDownLatch running = new CountDownLatch(1);
+            final CountDownLatch release = new CountDownLatch(1);
+            // keep the timer thread busy so the tasks below are still waiting when it is shut down
+            service.execute(() -> {
+                running.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 100; i++)
+                service.execute(ran::incrementAndGet);
+            final ScheduledFuture<?> later = service.schedule(ran::incrementAndGet, 1, TimeUnit.HOURS);
+            service.shutdown();
+            release.countDown();
+            assertTrue(service.awaitTermination(5, TimeUnit.SECONDS));
+            assertEquals(100, ran.get());
+            assertTrue(later.isCancelled());
+        } finally {
+            service.shutdownNow();
+        }
+    }
+
+    @Test
+    void sharedByName() {
+        final ScheduledExecutorService shared = Threads.acquireSharedScheduledExecutorService("timer-test-shared");
+        assertSame(shared, TimerWheelExecutorService.shared("timer-test-shared"));
+        shared.shutdown();
+        assertFalse(shared.isShutdown());
+    }
+}
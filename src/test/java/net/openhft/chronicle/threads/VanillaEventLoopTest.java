@@ -24,10 +24,13 @@ import net.openhft.chronicle.core.threads.HandlerPriority;
 import net.openhft.chronicle.core.threads.InvalidEventHandlerException;
 import net.openhft.chronicle.testframework.ExecutorServiceUtil;
 import net.openhft.chronicle.testframework.Waiters;
+import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
 
-import java.util.Objects;
+import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.IntStream;
 
 import static net.openhft.chronicle.threads.TestEventHandlers.*;
@@ -298,6 +301,111 @@ class VanillaEventLoopTest extends ThreadsTestCommon {
         ExecutorServiceUtil.shutdownAndWaitForTermination(es);
     }
 
+    @Test
+    void handlersAddedAndRemovedInBulkAreAcceptedTogether() {
+        try (VanillaEventLoop eventLoop = new VanillaEventLoop(null, "bulk", Pauser.balanced(), 1000L, true, null, VanillaEventLoop.ALLOWED_PRIORITIES)) {
+            eventLoop.start();
+            final AtomicInteger loopStarted = new AtomicInteger();
+            final AtomicBoolean actionBeforeAllStarted = new AtomicBoolean();
+            final List<BulkHandler> handlers = new ArrayList<>();
+            for (int i = 0; i < 200; i++)
+                handlers.add(new BulkHandler(loopStarted, actionBeforeAllStarted, 200));
+            eventLoop.addHandlers(handlers);
+            Waiters.waitForCondition("Wait for all handlers to be called", () -> handlers.stream().allMatch(h -> h.actions.get() > 0), 5_000);
+            assertFalse(actionBeforeAllStarted.get());
+            assertEquals(200, eventLoop.handlerCount());
+
+            final List<BulkHandler> removed = handlers.subList(0, 100);
+            eventLoop.removeHandlers(removed);
+            Waiters.waitForCondition("Wait for handlers to be removed", () -> eventLoop.handlerCount() == 100, 5_000);
+            assertTrue(removed.stream().allMatch(h -> h.loopFinished.get() == 1));
+            assertTrue(handlers.subList(100, 200).stream().allMatch(h -> h.loopFinished.get() == 0));
+        }
+    }
+
+    @Test
+    void handlersAddedOneAtATimeAndInBulkAreAcceptedInOrder() throws InterruptedException {
+        try (VanillaEventLoop eventLoop = new VanillaEventLoop(null, "bulk-order", Pauser.balanced(), 1000L, true, null, VanillaEventLoop.ALLOWED_PRIORITIES)) {
+            final CountDownLatch blocked = new CountDownLatch(1);
+            final CountDownLatch release = new CountDownLatch(1);
+            eventLoop.addHandler(() -> {
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return false;
+            });
+            eventLoop.start();
+            assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+            // queued while the loop is blocked, so accepted together
+            final EventHandler x = new NoOpHandler();
+            final EventHandler a = new NoOpHandler();
+            final EventHandler b = new NoOpHandler();
+            eventLoop.removeHandlers(Collections.singletonList(x));
+            eventLoop.addHandler(x);
+            eventLoop.addHandlers(Collections.singletonList(a));
+            eventLoop.addHandler(b);
+            release.countDown();
+
+            Waiters.waitForCondition("Wait for handlers to be added", () -> eventLoop.handlerCount() == 4, 5_000);
+            assertEquals(Arrays.asList(x, a, b), eventLoop.mediumHandlers.subList(1, 4));
+        }
+    }
+
+    @Test
+    void noHandlersAreAddedIfAnyHasTheWrongPriority() {
+        try (VanillaEventLoop eventLoop = new VanillaEventLoop(null, "bulk", Pauser.balanced(), 1000L, true, null, EnumSet.of(HandlerPriority.MEDIUM))) {
+            final EventHandler high = new EventHandler() {
+                @Override
+                public boolean action() {
+                    return false;
+                }
+
+                @Override
+                public @NotNull HandlerPriority priority() {
+                    return HandlerPriority.HIGH;
+                }
+            };
+            assertThrows(IllegalStateException.class, () -> eventLoop.addHandlers(Arrays.asList(new NoOpHandler(), high)));
+            assertEquals(0, eventLoop.handlerCount());
+        }
+    }
+
+    private static class BulkHandler implements EventHandler {
+        private final AtomicInteger loopStarted;
+        private final AtomicBoolean actionBeforeAllStarted;
+        private final int handlers;
+        final AtomicInteger actions = new AtomicInteger();
+        final AtomicInteger loopFinished = new AtomicInteger();
+
+        BulkHandler(AtomicInteger loopStarted, AtomicBoolean actionBeforeAllStarted, int handlers) {
+            this.loopStarted = loopStarted;
+            this.actionBeforeAllStarted = actionBeforeAllStarted;
+            this.handlers = handlers;
+        }
+
+        @Override
+        public void loopStarted() {
+            loopStarted.incrementAndGet();
+        }
+
+        @Override
+        public boolean action() {
+            if (loopStarted.get() < handlers)
+                actionBeforeAllStarted.set(true);
+            actions.incrementAndGet();
+            return false;
+        }
+
+        @Override
+        public void loopFinished() {
+            loopFinished.incrementAndGet();
+        }
+    }
+
     private static class NoOpHandler implements EventHandler {
 
         @Override
@@ -0,0 +1,77 @@
+package net.openhft.chronicle.threads.internal;
+
+import net.openhft.affinity.CpuLayout;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CpuTopologyTest {
+
+    private CpuLayout layout;
+
+    /**
+     * 2 sockets, 2 cores per socket, 2 threads per core, with siblings numbered like Linux does, i.e. cpu N and
+     * cpu N + 4 share a core
+     */
+    @BeforeEach
+    void setUp() {
+        layout = mock(CpuLayout.class);
+        when(layout.cpus()).thenReturn(8);
+        when(layout.socketId(anyInt())).thenAnswer(i -> (i.<Integer>getArgument(0) % 4) / 2);
+        when(layout.coreId(anyInt())).thenAnswer(i -> i.<Integer>getArgument(0) % 2);
+    }
+
+    @Test
+    void parseCpuList() {
+        BitSet cpus = CpuTopology.parseCpuList("2-5,8, 10-11\n");
+        assertEquals("{2, 3, 4, 5, 8, 10, 11}", cpus.toString());
+        assertTrue(CpuTopology.parseCpuList("\n").isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> CpuTopology.parseCpuList("1-x"));
+    }
+
+    @Test
+    void onlyFullyIsolatedCoresAreUsed() {
+        // cpu 1 and 5 are one core, 2 and 6 are another, 3 is isolated but its sibling 7 is not
+        CpuTopology topology = new CpuTopology(layout, CpuTopology.parseCpuList("1-3,5-6"));
+        assertEquals(Arrays.asList(1, 2), topology.isolatedPhysicalCores());
+    }
+
+    @Test
+    void noIsolatedCores() {
+        CpuTopology topology = new CpuTopology(layout, new BitSet());
+        assertTrue(topology.isolatedPhysicalCores().isEmpty());
+    }
+
+    @Test
+    void interleaveBySocket() {
+        // cpus 0, 1, 4 and 5 are on socket 0, 2, 3, 6 and 7 on socket 1
+        CpuTopology topology = new CpuTopology(layout, new BitSet());
+        assertEquals(Arrays.asList(0, 2, 1, 3, 4, 6, 5, 7), topology.interleaveBySocket(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7)));
+        assertEquals(Arrays.asList(0, 2, 1), topology.interleaveBySocket(Arrays.asList(0, 1, 2)));
+    }
+
+    @Test
+    void closedClaimsCanBeClaimedAgain() {
+        CpuTopology topology = new CpuTopology(layout, CpuTopology.parseCpuList("0-7"));
+        CpuTopology.Claim first = topology.claimIsolatedPhysicalCores(4);
+        assertEquals(Arrays.asList(0, 1, 2, 3), first.cpus());
+        try (CpuTopology.Claim none = topology.claimIsolatedPhysicalCores(1)) {
+            assertTrue(none.cpus().isEmpty());
+        }
+        first.close();
+
+        try (CpuTopology.Claim again = topology.claimIsolatedPhysicalCores(4, true)) {
+            assertEquals(Arrays.asList(0, 2, 1, 3), again.cpus());
+            // closing twice doesn't release the cores claimed since
+            first.close();
+            try (CpuTopology.Claim none = topology.claimIsolatedPhysicalCores(1)) {
+                assertTrue(none.cpus().isEmpty());
+            }
+        }
+    }
+}
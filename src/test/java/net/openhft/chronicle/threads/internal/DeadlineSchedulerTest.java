@@ -0,0 +1,107 @@
+/*
+ * Copyright 2016-2022 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.threads.internal;
+
+import net.openhft.chronicle.core.threads.EventHandler;
+import net.openhft.chronicle.threads.DeadlineEventHandler;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeadlineSchedulerTest {
+
+    @Test
+    void noSchedulerWithoutDeadlines() {
+        assertNull(DeadlineScheduler.create(new EventHandler[]{() -> false, () -> false}, null));
+    }
+
+    @Test
+    void handlersAreOrderedByDeadlineThenHandlersWithoutOne() {
+        final EventHandler plain = () -> false;
+        final EventHandler slow = new Deadline(1_000);
+        final EventHandler fast = new Deadline(100);
+        final DeadlineScheduler scheduler = DeadlineScheduler.create(new EventHandler[]{plain, slow, fast}, null);
+        assertNotNull(scheduler);
+
+        // never called, so all are due
+        assertArrayEquals(new int[]{1, 2, 0}, scheduler.order());
+
+        scheduler.actionAt(1, 0);
+        scheduler.actionAt(2, 0);
+        assertArrayEquals(new int[]{2, 1, 0}, scheduler.order());
+
+        // slow is due at 1000, fast at 950
+        scheduler.actionAt(2, 850);
+        assertArrayEquals(new int[]{2, 1, 0}, scheduler.order());
+        scheduler.actionAt(2, 990);
+        assertArrayEquals(new int[]{1, 2, 0}, scheduler.order());
+    }
+
+    @Test
+    void missesAreCountedAndKeptWhenTheHandlersChange() {
+        final EventHandler first = new Deadline(100);
+        final EventHandler second = new Deadline(100);
+        final DeadlineScheduler scheduler = DeadlineScheduler.create(new EventHandler[]{first, second}, null);
+        assertNotNull(scheduler);
+        scheduler.actionAt(0, 0);
+        scheduler.actionAt(0, 100);
+        assertEquals(0, scheduler.misses(first));
+        scheduler.actionAt(0, 201);
+        assertEquals(1, scheduler.misses(first));
+        assertEquals(0, scheduler.misses(second));
+
+        final DeadlineScheduler next = DeadlineScheduler.create(new EventHandler[]{first}, scheduler);
+        assertNotNull(next);
+        assertEquals(1, next.misses(first));
+        assertEquals(-1, next.misses(second));
+        next.actionAt(0, 400);
+        assertEquals(2, next.misses(first));
+    }
+
+    @Test
+    void timePausedIsNotAMiss() {
+        final EventHandler handler = new Deadline(100);
+        final DeadlineScheduler scheduler = DeadlineScheduler.create(new EventHandler[]{handler}, null);
+        assertNotNull(scheduler);
+        scheduler.actionAt(0, 0);
+        // the loop was idle, so paused for longer than the interval
+        scheduler.resumed(20_000);
+        scheduler.actionAt(0, 20_050);
+        assertEquals(0, scheduler.misses(handler));
+        scheduler.actionAt(0, 20_200);
+        assertEquals(1, scheduler.misses(handler));
+    }
+
+    private static final class Deadline implements DeadlineEventHandler {
+        private final long intervalNS;
+
+        Deadline(long intervalNS) {
+            this.intervalNS = intervalNS;
+        }
+
+        @Override
+        public long maxServiceIntervalNS() {
+            return intervalNS;
+        }
+
+        @Override
+        public boolean action() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2016-2022 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.threads.internal;
+
+import net.openhft.chronicle.core.threads.EventHandler;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventLoopHistoryTest {
+
+    private static final EventHandler HIGH = () -> false;
+    private static final EventHandler MEDIUM = () -> true;
+
+    @Test
+    void emptyHistory() {
+        StringBuilder out = new StringBuilder();
+        new EventLoopHistory(4).dump(out, new EventHandler[0], HIGH);
+        assertEquals("\nLoop history is empty", out.toString());
+    }
+
+    @Test
+    void dumpsEntriesOldestFirst() {
+        EventLoopHistory history = new EventLoopHistory(8);
+        long now = System.nanoTime();
+        history.handler(EventLoopHistory.HIGH, now, now + 1_000, false);
+        history.handler(0, now + 1_000, now + 3_000, true);
+        history.pause(now + 3_000, now + 10_000);
+
+        StringBuilder out = new StringBuilder();
+        history.dump(out, new EventHandler[]{MEDIUM}, HIGH);
+        String[] lines = out.toString().split("\n");
+        assertEquals(5, lines.length, out.toString());
+        assertTrue(lines[1].contains("3 entries"), lines[1]);
+        assertEquals("  -10 1 HIGH " + HIGH.getClass().getName() + " idle", lines[2]);
+        assertEquals("  -9 2 [0] " + MEDIUM.getClass().getName() + " busy", lines[3]);
+        assertEquals("  -7 7 pause", lines[4]);
+    }
+
+    @Test
+    void onlyKeepsTheCapacity() {
+        EventLoopHistory history = new EventLoopHistory(3); // rounded up to 4
+        long now = System.nanoTime();
+        for (int i = 0; i < 10; i++)
+            history.handler(0, now + i, now + i + 1, true);
+
+        StringBuilder out = new StringBuilder();
+        history.dump(out, new EventHandler[]{MEDIUM}, HIGH);
+        assertTrue(out.toString().contains(", 4 entries,"), out.toString());
+    }
+
+    @Test
+    void onlyDumpsTheWindow() {
+        EventLoopHistory history = new EventLoopHistory(16);
+        long now = System.nanoTime();
+        long old = now - EventLoopHistory.WINDOW_NS - TimeUnit.MILLISECONDS.toNanos(1);
+        history.handler(0, old, old + 1, true);
+        history.handler(0, now, now + 1, true);
+
+        StringBuilder out = new StringBuilder();
+        history.dump(out, new EventHandler[]{MEDIUM}, HIGH);
+        assertTrue(out.toString().contains(", 1 entries,"), out.toString());
+    }
+}
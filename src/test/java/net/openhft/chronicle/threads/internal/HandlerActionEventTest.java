@@ -0,0 +1,95 @@
+/*
+ * Copyright 2016-2022 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.threads.internal;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import net.openhft.chronicle.core.threads.EventHandler;
+import net.openhft.chronicle.core.threads.EventLoop;
+import net.openhft.chronicle.core.threads.InvalidEventHandlerException;
+import net.openhft.chronicle.threads.EventGroup;
+import net.openhft.chronicle.threads.ThreadsTestCommon;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class HandlerActionEventTest extends ThreadsTestCommon {
+    private static final String HANDLER_ACTION = "net.openhft.chronicle.threads.HandlerAction";
+
+    @Test
+    void slowHandlerIsRecorded() throws Exception {
+        assumeTrue(JfrSupport.ENABLED, "run with -Dchronicle.threads.jfr=true");
+        final Path file = Files.createTempFile("handler-action", ".jfr");
+        try {
+            try (Recording recording = new Recording()) {
+                recording.enable(HANDLER_ACTION);
+                recording.start();
+                final CountDownLatch acted = new CountDownLatch(1);
+                try (EventLoop eventGroup = EventGroup.builder().withName("jfr").build()) {
+                    eventGroup.addHandler(new SlowHandler(acted));
+                    eventGroup.start();
+                    assertTrue(acted.await(5, TimeUnit.SECONDS));
+                }
+                recording.stop();
+                recording.dump(file);
+            }
+
+            final List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                    .filter(e -> e.getEventType().getName().equals(HANDLER_ACTION))
+                    .filter(e -> e.getClass("handler").getName().equals(SlowHandler.class.getName()))
+                    .collect(Collectors.toList());
+            assertEquals(1, events.size(), events.toString());
+            final RecordedEvent event = events.get(0);
+            assertTrue(event.getString("eventLoop").contains("core"), event.getString("eventLoop"));
+            assertTrue(event.getDuration().compareTo(Duration.ofMillis(5)) >= 0, event.getDuration().toString());
+            assertFalse(event.getBoolean("busy"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    static final class SlowHandler implements EventHandler {
+        private final CountDownLatch acted;
+
+        SlowHandler(CountDownLatch acted) {
+            this.acted = acted;
+        }
+
+        @Override
+        public boolean action() throws InvalidEventHandlerException {
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            acted.countDown();
+            throw InvalidEventHandlerException.reusable();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2016-2022 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.threads.internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpscRingTest {
+
+    @Test
+    void capacityIsRoundedUpToAPowerOfTwo() {
+        assertEquals(1, new SpscRing<>(1).capacity());
+        assertEquals(4, new SpscRing<>(3).capacity());
+        assertEquals(1024, new SpscRing<>(1024).capacity());
+        assertThrows(IllegalArgumentException.class, () -> new SpscRing<>(0));
+    }
+
+    @Test
+    void fullRingRejectsEvents() {
+        SpscRing<String> ring = new SpscRing<>(2);
+        assertTrue(ring.publish("a"));
+        assertTrue(ring.publish("b"));
+        assertFalse(ring.publish("c"));
+        assertEquals("a", ring.peek());
+        ring.advance();
+        assertTrue(ring.publish("c"));
+        assertEquals("b", ring.peek());
+        ring.advance();
+        assertEquals("c", ring.peek());
+        ring.advance();
+        assertNull(ring.peek());
+        assertTrue(ring.isEmpty());
+    }
+
+    @Test
+    void peekDoesNotRemove() {
+        SpscRing<String> ring = new SpscRing<>(4);
+        ring.publish("a");
+        assertEquals("a", ring.peek());
+        assertEquals("a", ring.peek());
+        assertEquals(1, ring.size());
+    }
+
+    @Test
+    void awaitingEventsReportsAnEventPublishedAfterPeek() {
+        SpscRing<String> ring = new SpscRing<>(4);
+        assertNull(ring.peek());
+        assertFalse(ring.awaitingEvents());
+        // published after the consumer found the ring empty
+        ring.publish("a");
+        assertTrue(ring.awaitingEvents());
+        assertEquals("a", ring.peek());
+    }
+
+    @Test
+    void publishUnparksAWaitingConsumer() throws InterruptedException {
+        SpscRing<String> ring = new SpscRing<>(4);
+        Thread consumer = new Thread(() -> {
+            ring.consumer(Thread.currentThread());
+            ring.awaitingEvents();
+            long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (ring.peek() == null && System.nanoTime() < end)
+                LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(5));
+        });
+        consumer.start();
+        while (consumer.getState() != Thread.State.TIMED_WAITING)
+            Thread.yield();
+        long start = System.nanoTime();
+        ring.publish("a");
+        consumer.join();
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    void awaitingSpaceReportsAnEventRemovedAfterAFailedPublish() {
+        SpscRing<String> ring = new SpscRing<>(1);
+        // not held back by the ring
+        assertFalse(ring.awaitingSpace());
+        assertTrue(ring.publish("a"));
+        assertFalse(ring.publish("b"));
+        assertFalse(ring.awaitingSpace());
+        // removed after the producer found the ring full
+        assertEquals("a", ring.peek());
+        ring.advance();
+        assertTrue(ring.awaitingSpace());
+        assertTrue(ring.publish("b"));
+        assertFalse(ring.awaitingSpace());
+    }
+
+    @Test
+    void advanceUnparksAWaitingProducer() throws InterruptedException {
+        SpscRing<String> ring = new SpscRing<>(1);
+        assertTrue(ring.publish("a"));
+        Thread producer = new Thread(() -> {
+            ring.producer(Thread.currentThread());
+            long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (!ring.publish("b") && System.nanoTime() < end)
+                if (!ring.awaitingSpace())
+                    LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(5));
+        });
+        producer.start();
+        while (producer.getState() != Thread.State.TIMED_WAITING)
+            Thread.yield();
+        long start = System.nanoTime();
+        assertEquals("a", ring.peek());
+        ring.advance();
+        producer.join();
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        assertEquals("b", ring.peek());
+    }
+}
@@ -137,4 +137,15 @@ class ThreadMonitorHarnessTest {
         assertFalse(threadMonitorHarness.action());
         verify(threadHolder).dumpThread(loopStartedTime, nowTime);
     }
+
+    @Test
+    void isNextCheckedWhenTheThreadHolderSaysButNoMoreOftenThanTheMonitorPolls() {
+        final long nextCheckNS = System.nanoTime() + 1_000_000_000L;
+        when(threadHolder.nextCheckNS(anyLong())).thenReturn(nextCheckNS);
+        assertEquals(nextCheckNS, threadMonitorHarness.nextActionNS());
+
+        when(threadHolder.nextCheckNS(anyLong())).thenAnswer(iom -> iom.getArgument(0));
+        final long beforeNS = System.nanoTime();
+        assertTrue(threadMonitorHarness.nextActionNS() - beforeNS >= 10_000_000);
+    }
 }
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2016-2022 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.threads.internal;
+
+import net.openhft.chronicle.threads.NamedThreadFactory;
+import net.openhft.chronicle.threads.Threads;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrackedExecutorsTest {
+
+    @Test
+    void threadsAreTrackedUntilTheyFinish() throws Exception {
+        final ExecutorService service = TrackedExecutors.newFixedThreadPool(2, new NamedThreadFactory("tracked-test", true));
+        assertTrue(service instanceof TrackedExecutorService);
+        final CountDownLatch started = new CountDownLatch(2);
+        final CountDownLatch interrupted = new CountDownLatch(2);
+        for (int i = 0; i < 2; i++)
+            service.submit(() -> {
+                started.countDown();
+                try {
+                    Thread.sleep(60_000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+            });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        final List<Thread> threads = new ArrayList<>();
+        ((TrackedExecutorService) service).forEachThread(threads::add);
+        assertEquals(2, threads.size());
+
+        Threads.interrupt(service);
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+
+        service.shutdown();
+        assertTrue(service.awaitTermination(5, TimeUnit.SECONDS));
+        for (Thread thread : threads)
+            thread.join(5_000);
+        threads.clear();
+        ((TrackedExecutorService) service).forEachThread(threads::add);
+        assertEquals(0, threads.size());
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2016-2022 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.threads.internal;
+
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.threads.VirtualThreadExecutorFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class VirtualThreadsTest {
+
+    @Test
+    void availableFromJava21() {
+        assertEquals(Jvm.majorVersion() >= 21, VirtualThreads.AVAILABLE);
+    }
+
+    @Test
+    void factoryNamesVirtualThreads() throws Exception {
+        assumeTrue(VirtualThreads.AVAILABLE);
+        Thread thread = VirtualThreads.factory("virtual-test").newThread(() -> {
+        });
+        assertEquals("virtual-test-0", thread.getName());
+        assertTrue((Boolean) Thread.class.getMethod("isVirtual").invoke(thread));
+        assertTrue(thread.isDaemon());
+    }
+
+    @Test
+    void factoryNeedsJava21() {
+        assumeTrue(!VirtualThreads.AVAILABLE);
+        assertThrows(UnsupportedOperationException.class, () -> VirtualThreads.factory("virtual-test"));
+    }
+
+    @Test
+    void executorFactoryRunsTasksOnAnyJava() throws Exception {
+        ExecutorService service = VirtualThreadExecutorFactory.INSTANCE.acquireExecutorService("virtual-test", 2, true);
+        try {
+            assertEquals("done", service.submit(() -> "done").get(1, TimeUnit.SECONDS));
+        } finally {
+            service.shutdownNow();
+        }
+    }
+}